@@ -0,0 +1,33 @@
+package com.leetcoder.benchmark;
+
+/**
+ * Spring properties that run the application against an in-memory H2 database
+ * with schedulers disabled and logging kept out of the measurements. Passed as
+ * command-line arguments so they take precedence over application.yml.
+ */
+final class BenchmarkProperties {
+
+    private BenchmarkProperties() {
+    }
+
+    static String[] h2Args() {
+        return new String[] {
+                "--spring.datasource.url=jdbc:h2:mem:benchmark;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.hikari.data-source-properties.reWriteBatchedInserts=",
+                "--spring.jpa.hibernate.ddl-auto=create",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.main.banner-mode=off",
+                "--app.sync.cron=-",
+                "--app.reminders.cron=-",
+                "--app.reminders.bucket-refresh-cron=-",
+                // H2 has no declarative partitioning, nor unnest() over several arrays for the due counters
+                "--app.reviews.history.enabled=false",
+                "--app.stats.enabled=false",
+                "--logging.level.root=WARN",
+                "--logging.level.com.leetcoder=WARN"
+        };
+    }
+}
@@ -0,0 +1,49 @@
+package com.leetcoder.benchmark;
+
+import org.mockito.Mockito;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+
+/**
+ * Builds application services outside Spring for benchmarks that only measure
+ * their calculations. The given collaborators are matched to constructor
+ * parameters by type; every other parameter gets a stub that fails with the
+ * method it was called with, so a benchmark that strays off its measured path
+ * says so, and services can gain collaborators without edits here.
+ */
+final class BenchmarkServices {
+
+    private BenchmarkServices() {
+    }
+
+    static <T> T create(Class<T> type, Object... collaborators) {
+        Constructor<?>[] constructors = type.getConstructors();
+        if (constructors.length != 1) {
+            throw new IllegalArgumentException(type.getSimpleName() + " needs exactly one public constructor");
+        }
+        Constructor<?> constructor = constructors[0];
+        Class<?>[] parameterTypes = constructor.getParameterTypes();
+        Object[] arguments = new Object[parameterTypes.length];
+        for (int i = 0; i < parameterTypes.length; i++) {
+            arguments[i] = argument(type, parameterTypes[i], collaborators);
+        }
+        try {
+            return type.cast(constructor.newInstance(arguments));
+        } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Cannot create " + type.getSimpleName(), e);
+        }
+    }
+
+    private static Object argument(Class<?> service, Class<?> parameterType, Object[] collaborators) {
+        for (Object collaborator : collaborators) {
+            if (parameterType.isInstance(collaborator)) {
+                return collaborator;
+            }
+        }
+        return Mockito.mock(parameterType, invocation -> {
+            throw new UnsupportedOperationException(service.getSimpleName() + " benchmark called "
+                    + parameterType.getSimpleName() + "." + invocation.getMethod().getName());
+        });
+    }
+}
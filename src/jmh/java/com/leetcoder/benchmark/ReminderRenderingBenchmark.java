@@ -0,0 +1,53 @@
+package com.leetcoder.benchmark;
+
+import com.leetcoder.application.service.DailyReminderService;
+import com.leetcoder.domain.projection.DueReminderRow;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HTML rendering of one user's reminder digest.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReminderRenderingBenchmark {
+
+    @Param({ "5", "50", "500" })
+    private int dueItems;
+
+    private List<DueReminderRow> rows;
+
+    @Setup
+    public void setUp() {
+        UUID userId = UUID.randomUUID();
+        rows = new ArrayList<>(dueItems);
+        for (int i = 0; i < dueItems; i++) {
+            String slug = "problem-" + i;
+            rows.add(new DueReminderRow(userId, "bench@example.com", "bench_user", "Problem " + i,
+                    "https://leetcode.com/problems/" + slug));
+        }
+    }
+
+    @Benchmark
+    public String renderDigest() {
+        return DailyReminderService.renderDigestHtml("bench_user", rows);
+    }
+}
@@ -0,0 +1,122 @@
+package com.leetcoder.benchmark;
+
+import com.leetcoder.application.service.SpacedRepetitionService;
+import com.leetcoder.application.service.SpacedRepetitionService.ReviewResult;
+import com.leetcoder.domain.scheduling.Sm2Engine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SM-2 scheduling cost, for a single review, for rescheduling a large item set and
+ * for projecting its review load.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SpacedRepetitionBenchmark {
+
+    @Param({ "100000" })
+    private int items;
+
+    private SpacedRepetitionService service;
+    private double[] easeFactors;
+    private int[] intervals;
+    private int[] repetitions;
+    private int[] qualities;
+    private long[] dueEpochDays;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        // calculateNextReview touches neither the repository nor transactions
+        service = BenchmarkServices.create(SpacedRepetitionService.class,
+                new Sm2Engine(Clock.fixed(Instant.parse("2024-01-01T09:00:00Z"), ZoneOffset.UTC)),
+                new SimpleMeterRegistry());
+
+        SplittableRandom random = new SplittableRandom(42);
+        easeFactors = new double[items];
+        intervals = new int[items];
+        repetitions = new int[items];
+        qualities = new int[items];
+        dueEpochDays = new long[items];
+        for (int i = 0; i < items; i++) {
+            easeFactors[i] = 1.3 + random.nextDouble() * 1.5;
+            repetitions[i] = random.nextInt(8);
+            intervals[i] = repetitions[i] == 0 ? 0 : 1 + random.nextInt(120);
+            qualities[i] = random.nextInt(6);
+            dueEpochDays[i] = 19_723L - 10 + random.nextInt(120);
+        }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public ReviewResult calculateNextReview() {
+        int i = cursor++ % items;
+        return service.calculateNextReview(easeFactors[i], intervals[i], repetitions[i], qualities[i]);
+    }
+
+    /** Baseline: one ReviewResult allocation and clock read per item. */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void bulkReschedule(Blackhole blackhole) {
+        for (int i = 0; i < items; i++) {
+            blackhole.consume(service.calculateNextReview(easeFactors[i], intervals[i], repetitions[i], qualities[i]));
+        }
+    }
+
+    /** Primitive-array pass through Sm2Engine, no per-item allocation. */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long[] bulkRescheduleArrays(BulkState bulk) {
+        service.rescheduleAll(bulk.easeFactors, bulk.intervals, bulk.repetitions, bulk.nextReviewEpochDay,
+                qualities, 19_723L);
+        return bulk.nextReviewEpochDay;
+    }
+
+    /** 90-day workload projection at quality 4, as the forecast endpoint runs it per range. */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int[] projectLoad() {
+        int[] load = new int[90];
+        Sm2Engine.projectLoad(easeFactors, intervals, repetitions, dueEpochDays, 4, 19_723L, load, 0, items);
+        return load;
+    }
+
+    /** Working copies for the in-place bulk pass, reset before every invocation. */
+    @State(Scope.Thread)
+    public static class BulkState {
+
+        private double[] easeFactors;
+        private int[] intervals;
+        private int[] repetitions;
+        private long[] nextReviewEpochDay;
+
+        @Setup(Level.Invocation)
+        public void reset(SpacedRepetitionBenchmark benchmark) {
+            easeFactors = benchmark.easeFactors.clone();
+            intervals = benchmark.intervals.clone();
+            repetitions = benchmark.repetitions.clone();
+            nextReviewEpochDay = new long[benchmark.items];
+        }
+    }
+}
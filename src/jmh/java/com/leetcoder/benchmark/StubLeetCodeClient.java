@@ -0,0 +1,76 @@
+package com.leetcoder.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.leetcoder.infrastructure.client.AdaptiveRateLimiter;
+import com.leetcoder.infrastructure.client.LeetCodeClient;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory LeetCode stand-in. Every user solves a fixed window of problems out
+ * of a shared pool; {@link #advanceClock()} makes all of them look freshly
+ * solved again.
+ */
+public class StubLeetCodeClient extends LeetCodeClient {
+
+    static final int PROBLEM_POOL = 500;
+    static final int SUBMISSIONS_PER_USER = 20;
+
+    private final AtomicLong clockSeconds = new AtomicLong(1_700_000_000L);
+
+    public StubLeetCodeClient() {
+        super(RestClient.builder(), new SimpleClientHttpRequestFactory(), "http://localhost", SUBMISSIONS_PER_USER, 0,
+                new ObjectMapper(), new AdaptiveRateLimiter(new SimpleMeterRegistry(), 5, 0.5, 20, 1, 0.5, 3,
+                        Duration.ofSeconds(1), Duration.ofSeconds(60)),
+                CircuitBreakerRegistry.ofDefaults(), null, new SimpleMeterRegistry());
+    }
+
+    public void advanceClock() {
+        clockSeconds.addAndGet(3_600);
+    }
+
+    @Override
+    public List<SubmissionDto> getRecentSubmissions(String username) {
+        int offset = Math.floorMod(username.hashCode(), PROBLEM_POOL);
+        long now = clockSeconds.get();
+        List<SubmissionDto> submissions = new ArrayList<>(SUBMISSIONS_PER_USER);
+        for (int i = 0; i < SUBMISSIONS_PER_USER; i++) {
+            String slug = slug((offset + i) % PROBLEM_POOL);
+            submissions.add(new SubmissionDto(String.valueOf(now - i), title(slug), slug, String.valueOf(now - i),
+                    "java"));
+        }
+        return submissions;
+    }
+
+    @Override
+    public QuestionDto getQuestionDetails(String titleSlug) {
+        return new QuestionDto(titleSlug, title(titleSlug), titleSlug, "Medium");
+    }
+
+    @Override
+    public Map<String, QuestionDto> getQuestionDetails(Collection<String> titleSlugs) {
+        Map<String, QuestionDto> questions = new LinkedHashMap<>();
+        for (String slug : titleSlugs) {
+            questions.put(slug, getQuestionDetails(slug));
+        }
+        return questions;
+    }
+
+    private static String slug(int index) {
+        return "problem-" + index;
+    }
+
+    private static String title(String slug) {
+        return "Problem " + slug.substring(slug.indexOf('-') + 1);
+    }
+}
@@ -0,0 +1,101 @@
+package com.leetcoder.benchmark;
+
+import com.leetcoder.LeetCodeSRSApplication;
+import com.leetcoder.application.service.LeetCodeSyncService;
+import com.leetcoder.domain.entity.User;
+import com.leetcoder.infrastructure.repository.UserRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * LeetCodeSyncService submission processing against an in-memory H2 database,
+ * with the LeetCode client replaced by {@link StubLeetCodeClient}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SubmissionSyncBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private LeetCodeSyncService syncService;
+    private UserRepository userRepository;
+    private StubLeetCodeClient client;
+    private User existingUser;
+    private int newUsers;
+
+    @Setup(Level.Trial)
+    public void startContext() {
+        context = new SpringApplicationBuilder(LeetCodeSRSApplication.class, StubClientConfig.class)
+                .web(WebApplicationType.NONE)
+                .run(BenchmarkProperties.h2Args());
+        syncService = context.getBean(LeetCodeSyncService.class);
+        userRepository = context.getBean(UserRepository.class);
+        client = context.getBean(StubLeetCodeClient.class);
+
+        existingUser = userRepository.save(user("existing_user"));
+        syncService.syncUser(existingUser);
+    }
+
+    @TearDown(Level.Trial)
+    public void stopContext() {
+        context.close();
+    }
+
+    /** Nothing new since the watermark: one stubbed HTTP call, no DB work. */
+    @Benchmark
+    public void syncWithoutNewSolves() {
+        syncService.syncUser(existingUser);
+    }
+
+    /** All 20 problems solved again: one item lookup and 20 batched updates. */
+    @Benchmark
+    public void syncWithNewSolves() {
+        client.advanceClock();
+        syncService.syncUser(existingUser);
+    }
+
+    /** First sync of a user: 20 item inserts, plus question inserts while the pool warms up. */
+    @Benchmark
+    public void firstSyncOfNewUser() {
+        User user = userRepository.save(user("new_user_" + newUsers++));
+        syncService.syncUser(user);
+    }
+
+    private static User user(String username) {
+        return User.builder()
+                .email(username + "@example.com")
+                .leetcodeUsername(username)
+                .build();
+    }
+
+    @Configuration
+    static class StubClientConfig {
+
+        @Bean
+        @Primary
+        StubLeetCodeClient stubLeetCodeClient() {
+            return new StubLeetCodeClient();
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.leetcoder.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Embedded stand-in for LeetCode's /graphql endpoint. Serves synthetic
+ * recentAcSubmissionList, aliased question and questionList answers for a pool
+ * of "problem-N" slugs. Every response is delayed by {@code latency} plus up to
+ * {@code jitter}; a share of requests fails with 500 or is throttled with 429
+ * and a Retry-After, so the client's resilience paths get exercised too.
+ */
+public final class FakeLeetCodeServer implements AutoCloseable {
+
+    static final int SUBMISSIONS_PER_USER = 20;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpServer server;
+    // Platform threads, so the stand-in never competes with the application for carrier threads
+    private final ExecutorService executor = Executors.newCachedThreadPool(Thread.ofPlatform().daemon()
+            .name("fake-leetcode-", 0).factory());
+    private final int problemPool;
+    private final Duration latency;
+    private final Duration jitter;
+    private final double errorRate;
+    private final double throttleRate;
+    private final Duration retryAfter;
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicLong throttled = new AtomicLong();
+
+    public FakeLeetCodeServer(int problemPool, Duration latency, Duration jitter, double errorRate,
+            double throttleRate, Duration retryAfter) throws IOException {
+        this.problemPool = Math.max(SUBMISSIONS_PER_USER, problemPool);
+        this.latency = latency;
+        this.jitter = jitter;
+        this.errorRate = errorRate;
+        this.throttleRate = throttleRate;
+        this.retryAfter = retryAfter;
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/graphql", this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public long requests() {
+        return requests.get();
+    }
+
+    public long errors() {
+        return errors.get();
+    }
+
+    public long throttled() {
+        return throttled.get();
+    }
+
+    /**
+     * Slug of the problem a user solved {@code index} submissions ago. Users
+     * start at different offsets so their windows overlap only partly.
+     */
+    static String solvedSlug(int userNumber, int index, int problemPool) {
+        return "problem-" + Math.floorMod(userNumber * 7 + index, problemPool);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            requests.incrementAndGet();
+            JsonNode request = objectMapper.readTree(exchange.getRequestBody());
+            sleep();
+
+            double roll = ThreadLocalRandom.current().nextDouble();
+            if (roll < throttleRate) {
+                throttled.incrementAndGet();
+                exchange.getResponseHeaders().set("Retry-After", String.valueOf(retryAfter.toSeconds()));
+                send(exchange, 429, "{\"errors\":[{\"message\":\"Too many requests\"}]}");
+                return;
+            }
+            if (roll < throttleRate + errorRate) {
+                errors.incrementAndGet();
+                send(exchange, 500, "{\"errors\":[{\"message\":\"Internal error\"}]}");
+                return;
+            }
+
+            String query = request.path("query").asText();
+            JsonNode variables = request.path("variables");
+            ObjectNode data;
+            if (query.contains("recentAcSubmissionList")) {
+                data = submissions(variables.path("username").asText());
+            } else if (query.contains("questionList")) {
+                data = problemset(variables.path("skip").asInt(), variables.path("limit").asInt());
+            } else {
+                data = questions(variables);
+            }
+            ObjectNode response = objectMapper.createObjectNode();
+            response.set("data", data);
+            send(exchange, 200, objectMapper.writeValueAsString(response));
+        }
+    }
+
+    private ObjectNode submissions(String username) {
+        int userNumber = userNumber(username);
+        long now = Instant.now().getEpochSecond();
+        ArrayNode list = objectMapper.createArrayNode();
+        for (int i = 0; i < SUBMISSIONS_PER_USER; i++) {
+            String slug = solvedSlug(userNumber, i, problemPool);
+            list.addObject()
+                    .put("id", String.valueOf(now * 100 + i))
+                    .put("title", title(slug))
+                    .put("titleSlug", slug)
+                    .put("timestamp", String.valueOf(now - i * 60L))
+                    .put("lang", "java");
+        }
+        ObjectNode data = objectMapper.createObjectNode();
+        data.set("recentAcSubmissionList", list);
+        return data;
+    }
+
+    // Aliased batch (s0..sN -> q0..qN) or the single titleSlug form
+    private ObjectNode questions(JsonNode variables) {
+        ObjectNode data = objectMapper.createObjectNode();
+        if (variables.has("titleSlug")) {
+            data.set("question", question(variables.path("titleSlug").asText()));
+            return data;
+        }
+        Iterator<Map.Entry<String, JsonNode>> fields = variables.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            data.set("q" + field.getKey().substring(1), question(field.getValue().asText()));
+        }
+        return data;
+    }
+
+    private ObjectNode problemset(int skip, int limit) {
+        ArrayNode questions = objectMapper.createArrayNode();
+        for (int i = skip; i < Math.min(problemPool, skip + limit); i++) {
+            questions.add(question("problem-" + i));
+        }
+        ObjectNode list = objectMapper.createObjectNode().put("total", problemPool);
+        list.set("questions", questions);
+        ObjectNode data = objectMapper.createObjectNode();
+        data.set("problemsetQuestionList", list);
+        return data;
+    }
+
+    private ObjectNode question(String slug) {
+        if (!slug.startsWith("problem-")) {
+            return null;
+        }
+        int number = Integer.parseInt(slug.substring("problem-".length()));
+        return objectMapper.createObjectNode()
+                .put("questionId", String.valueOf(number + 1))
+                .put("title", title(slug))
+                .put("titleSlug", slug)
+                .put("difficulty", difficulty(number));
+    }
+
+    static String title(String slug) {
+        return "Problem " + slug.substring(slug.indexOf('-') + 1);
+    }
+
+    static String difficulty(int number) {
+        return switch (number % 3) {
+            case 0 -> "Easy";
+            case 1 -> "Medium";
+            default -> "Hard";
+        };
+    }
+
+    // Usernames are "userN"; anything else maps to user 0
+    private static int userNumber(String username) {
+        try {
+            return Integer.parseInt(username.substring(4));
+        } catch (RuntimeException e) {
+            return 0;
+        }
+    }
+
+    private void sleep() {
+        long jitterMillis = jitter.toMillis() > 0 ? ThreadLocalRandom.current().nextLong(jitter.toMillis() + 1) : 0;
+        long millis = latency.toMillis() + jitterMillis;
+        if (millis > 0) {
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static void send(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
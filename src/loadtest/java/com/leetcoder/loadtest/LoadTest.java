@@ -0,0 +1,271 @@
+package com.leetcoder.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.leetcoder.LeetCodeSRSApplication;
+import com.leetcoder.application.service.DailyReminderService;
+import com.leetcoder.application.service.LeetCodeSyncService;
+import com.leetcoder.application.service.LeetCodeSyncService.SyncRunReport;
+import com.leetcoder.application.service.ScheduleChangeService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * End-to-end capacity run: seeds users and study items in a local Postgres,
+ * points the application at {@link FakeLeetCodeServer} and {@link SmtpSink},
+ * then runs a full sync and a reminder run and reports throughput, p50/p99
+ * latency of the instrumented paths and peak heap per phase.
+ * <p>
+ * Settings are system properties ({@code -Dloadtest.users=5000}); application
+ * properties passed the same way ({@code -Dapp.leetcode.rate-limit.max-rate=50})
+ * override the defaults used here. The target database is recreated on every run.
+ */
+public final class LoadTest {
+
+    // Instrumented in the application; percentiles are turned on for these below
+    private static final List<String> LATENCY_METERS = List.of("sync.user", "leetcode.client.requests", "mail.send");
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int users = Integer.getInteger("loadtest.users", 1000);
+        int itemsPerUser = Integer.getInteger("loadtest.items-per-user", 50);
+        int problemPool = Math.max(Integer.getInteger("loadtest.problem-pool", 3000),
+                itemsPerUser + 2 * FakeLeetCodeServer.SUBMISSIONS_PER_USER);
+        String dbUrl = System.getProperty("loadtest.db-url", "jdbc:postgresql://localhost:5432/leetcode_srs_loadtest");
+        String dbUser = System.getProperty("loadtest.db-user", "postgres");
+        String dbPassword = System.getProperty("loadtest.db-password", "password");
+        File resultFile = new File(System.getProperty("loadtest.result-file", "target/loadtest-result.json"));
+
+        createDatabaseIfMissing(dbUrl, dbUser, dbPassword);
+
+        try (FakeLeetCodeServer leetCode = new FakeLeetCodeServer(problemPool,
+                Duration.parse(System.getProperty("loadtest.latency", "PT0.05S")),
+                Duration.parse(System.getProperty("loadtest.latency-jitter", "PT0.05S")),
+                Double.parseDouble(System.getProperty("loadtest.error-rate", "0.01")),
+                Double.parseDouble(System.getProperty("loadtest.throttle-rate", "0.005")),
+                Duration.parse(System.getProperty("loadtest.retry-after", "PT1S")));
+                SmtpSink smtp = new SmtpSink();
+                ConfigurableApplicationContext context = new SpringApplicationBuilder(LeetCodeSRSApplication.class)
+                        .web(WebApplicationType.NONE)
+                        .run(applicationArgs(dbUrl, dbUser, dbPassword, leetCode, smtp))) {
+
+            JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+            long seedStart = System.nanoTime();
+            int seededItems = seed(jdbc, users, itemsPerUser, problemPool);
+            // Seeding bypasses the services, so the due counters start from a recount
+            context.getBean(ScheduleChangeService.class).recountAll();
+            System.out.printf("Seeded %d users and %d study items in %d ms.%n", users, seededItems,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - seedStart));
+
+            LeetCodeSyncService syncService = context.getBean(LeetCodeSyncService.class);
+            DailyReminderService reminderService = context.getBean(DailyReminderService.class);
+
+            List<Phase> phases = new ArrayList<>();
+            Phase sync = measure("sync", "users", () -> {
+                SyncRunReport report = syncService.syncAllUsers();
+                return report.succeeded();
+            });
+            phases.add(sync);
+            long messagesBefore = smtp.messages();
+            phases.add(measure("reminders", "messages", () -> {
+                reminderService.sendDailyReminders();
+                return (int) (smtp.messages() - messagesBefore);
+            }));
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("users", users);
+            result.put("studyItems", seededItems);
+            result.put("phases", phases);
+            result.put("latencies", latencies(context.getBean(MeterRegistry.class)));
+            result.put("upstream", Map.of("requests", leetCode.requests(), "errors", leetCode.errors(),
+                    "throttled", leetCode.throttled()));
+            result.put("smtp", Map.of("messages", smtp.messages(), "connections", smtp.connections()));
+
+            print(result);
+            resultFile.getParentFile().mkdirs();
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(resultFile, result);
+            System.out.println("Results written to " + resultFile);
+        }
+    }
+
+    private static String[] applicationArgs(String dbUrl, String dbUser, String dbPassword,
+            FakeLeetCodeServer leetCode, SmtpSink smtp) {
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("spring.datasource.url", dbUrl);
+        properties.put("spring.datasource.username", dbUser);
+        properties.put("spring.datasource.password", dbPassword);
+        properties.put("spring.jpa.hibernate.ddl-auto", "create");
+        properties.put("spring.main.banner-mode", "off");
+        properties.put("spring.mail.host", "127.0.0.1");
+        properties.put("spring.mail.port", String.valueOf(smtp.port()));
+        properties.put("spring.mail.username", "loadtest@localhost");
+        properties.put("spring.mail.properties.mail.smtp.auth", "false");
+        properties.put("spring.mail.properties.mail.smtp.starttls.enable", "false");
+        properties.put("app.leetcode.base-url", leetCode.baseUrl());
+        properties.put("app.sync.cron", "-");
+        properties.put("app.reminders.cron", "-");
+        properties.put("app.reminders.bucket-refresh-cron", "-");
+        properties.put("logging.level.root", "WARN");
+        properties.put("logging.level.com.leetcoder", "WARN");
+        for (String meter : LATENCY_METERS) {
+            properties.put("management.metrics.distribution.percentiles." + meter, "0.5,0.99");
+            // Default percentile window is 2 minutes; keep the whole run
+            properties.put("management.metrics.distribution.expiry." + meter, "1h");
+        }
+
+        List<String> args = new ArrayList<>();
+        properties.forEach((key, value) -> {
+            // -D settings win over the defaults above
+            if (System.getProperty(key) == null) {
+                args.add("--" + key + "=" + value);
+            }
+        });
+        return args.toArray(String[]::new);
+    }
+
+    private static void createDatabaseIfMissing(String dbUrl, String user, String password) throws SQLException {
+        String withoutParams = dbUrl.contains("?") ? dbUrl.substring(0, dbUrl.indexOf('?')) : dbUrl;
+        int slash = withoutParams.lastIndexOf('/');
+        String database = withoutParams.substring(slash + 1);
+        try (Connection connection = DriverManager.getConnection(
+                withoutParams.substring(0, slash + 1) + "postgres", user, password);
+                Statement statement = connection.createStatement()) {
+            boolean exists;
+            try (var resultSet = statement.executeQuery(
+                    "SELECT 1 FROM pg_database WHERE datname = '" + database.replace("'", "''") + "'")) {
+                exists = resultSet.next();
+            }
+            if (!exists) {
+                statement.execute("CREATE DATABASE \"" + database.replace("\"", "\"\"") + "\"");
+            }
+        }
+    }
+
+    /**
+     * Seeds with set-based inserts. Users are "userN"; user N's items follow the
+     * same slug window the fake server reports as solved, offset so half of the
+     * solves hit existing items. Every tenth problem is left out of the questions
+     * table so sync also has question details to look up.
+     *
+     * @return the number of study items inserted
+     */
+    private static int seed(JdbcTemplate jdbc, int users, int itemsPerUser, int problemPool) {
+        // Hibernate recreates its own tables; review history is created outside it and would point at old ids
+        jdbc.execute("TRUNCATE review_events");
+        jdbc.update("""
+                INSERT INTO questions (title_slug, title, difficulty, url)
+                SELECT 'problem-' || n, 'Problem ' || n, (ARRAY['Easy', 'Medium', 'Hard'])[n % 3 + 1],
+                       'https://leetcode.com/problems/problem-' || n
+                FROM generate_series(0, ? - 1) n
+                WHERE n % 10 <> 0
+                """, problemPool);
+        jdbc.update("""
+                INSERT INTO users (id, email, leetcode_username, timezone, created_at, reminder_hour_utc)
+                SELECT gen_random_uuid(), 'user' || n || '@loadtest.local', 'user' || n, 'UTC', now(), 9
+                FROM generate_series(0, ? - 1) n
+                """, users);
+        int offset = FakeLeetCodeServer.SUBMISSIONS_PER_USER / 2;
+        return jdbc.update("""
+                INSERT INTO study_items (id, user_id, question_title_slug, ease_factor, interval_days, repetitions,
+                                         last_reviewed_at, next_review_at, version)
+                SELECT nextval('study_items_seq'), u.id, 'problem-' || p.n, 2.5, 1, 1,
+                       now() - interval '2 days', now() - interval '1 hour', 0
+                FROM users u
+                CROSS JOIN LATERAL (
+                    SELECT (substring(u.leetcode_username FROM 5)::int * 7 + ? + i) % ? AS n
+                    FROM generate_series(0, ? - 1) i
+                ) p
+                WHERE p.n % 10 <> 0
+                """, offset, problemPool, itemsPerUser);
+    }
+
+    private static Phase measure(String name, String unit, Supplier<Integer> work) {
+        System.gc();
+        List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .toList();
+        heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+
+        long start = System.nanoTime();
+        int processed = work.get();
+        long nanos = System.nanoTime() - start;
+
+        long peakHeap = heapPools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+        double seconds = nanos / 1e9;
+        return new Phase(name, processed, unit, TimeUnit.NANOSECONDS.toMillis(nanos),
+                seconds > 0 ? processed / seconds : 0, peakHeap / (1024 * 1024));
+    }
+
+    private static List<Latency> latencies(MeterRegistry registry) {
+        List<Latency> latencies = new ArrayList<>();
+        for (String meter : LATENCY_METERS) {
+            for (Timer timer : registry.find(meter).timers()) {
+                HistogramSnapshot snapshot = timer.takeSnapshot();
+                double p50 = 0;
+                double p99 = 0;
+                for (ValueAtPercentile percentile : snapshot.percentileValues()) {
+                    if (percentile.percentile() == 0.5) {
+                        p50 = percentile.value(TimeUnit.MILLISECONDS);
+                    } else if (percentile.percentile() == 0.99) {
+                        p99 = percentile.value(TimeUnit.MILLISECONDS);
+                    }
+                }
+                String tags = timer.getId().getTags().stream()
+                        .filter(tag -> !tag.getKey().equals("application"))
+                        .map(tag -> tag.getKey() + "=" + tag.getValue())
+                        .collect(Collectors.joining(","));
+                latencies.add(new Latency(meter + "{" + tags + "}", snapshot.count(), p50, p99));
+            }
+        }
+        return latencies;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void print(Map<String, Object> result) {
+        System.out.printf("%n=== Load test: %s users, %s study items ===%n", result.get("users"),
+                result.get("studyItems"));
+        System.out.printf("%-12s %10s %12s %22s %14s%n", "phase", "processed", "duration", "throughput",
+                "peak heap");
+        for (Phase phase : (List<Phase>) result.get("phases")) {
+            System.out.printf("%-12s %10d %9d ms %15.1f %s/s %11d MB%n", phase.name(), phase.processed(),
+                    phase.durationMillis(), phase.throughput(), phase.unit(), phase.peakHeapMb());
+        }
+        System.out.printf("%n%-70s %8s %10s %10s%n", "latency", "count", "p50 ms", "p99 ms");
+        for (Latency latency : (List<Latency>) result.get("latencies")) {
+            System.out.printf("%-70s %8d %10.1f %10.1f%n", latency.meter(), latency.count(), latency.p50Millis(),
+                    latency.p99Millis());
+        }
+        System.out.printf("%nupstream: %s%nsmtp: %s%n%n", result.get("upstream"), result.get("smtp"));
+    }
+
+    record Phase(String name, int processed, String unit, long durationMillis, double throughput, long peakHeapMb) {
+    }
+
+    record Latency(String meter, long count, double p50Millis, double p99Millis) {
+    }
+}
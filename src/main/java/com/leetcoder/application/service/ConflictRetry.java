@@ -0,0 +1,30 @@
+package com.leetcoder.application.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.util.function.Supplier;
+
+/**
+ * Re-runs a unit of work that lost an optimistic-locking race. Each attempt
+ * must start its own transaction and re-read the state it modifies.
+ */
+@Slf4j
+final class ConflictRetry {
+
+    private ConflictRetry() {
+    }
+
+    static <T> T run(int maxAttempts, Supplier<T> attempt) {
+        for (int i = 1;; i++) {
+            try {
+                return attempt.get();
+            } catch (OptimisticLockingFailureException e) {
+                if (i >= maxAttempts) {
+                    throw e;
+                }
+                log.debug("Concurrent update detected, retrying (attempt {} of {})", i + 1, maxAttempts);
+            }
+        }
+    }
+}
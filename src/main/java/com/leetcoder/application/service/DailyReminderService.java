@@ -1,24 +1,35 @@
 package com.leetcoder.application.service;
 
-import com.leetcoder.domain.entity.StudyItem;
-import com.leetcoder.domain.entity.User;
+import com.leetcoder.domain.projection.DueReminderRow;
+import com.leetcoder.domain.scheduling.ReminderBucket;
+import com.leetcoder.infrastructure.mail.MailDispatcher;
 import com.leetcoder.infrastructure.repository.StudyItemRepository;
+import com.leetcoder.infrastructure.repository.UserRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
 
 @Service
 @RequiredArgsConstructor
@@ -26,74 +37,219 @@ import java.util.stream.Collectors;
 public class DailyReminderService {
 
     private final StudyItemRepository studyItemRepository;
+    private final UserRepository userRepository;
     private final JavaMailSender mailSender;
+    private final MailDispatcher mailDispatcher;
+    private final MeterRegistry meterRegistry;
+    private final JobRunClaimService jobRunClaims;
 
     @Value("${spring.mail.username}")
     private String fromEmail;
 
-    // Daily at 09:00 AM server time (simplification: not handling user timezones
-    // dynamically yet)
-    @Scheduled(cron = "0 0 9 * * *")
-    @Transactional(readOnly = true)
+    // Smallest UUID in Postgres ordering, the keyset starting point
+    private static final UUID FIRST_USER_ID = new UUID(0L, 0L);
+
+    @Value("${app.reminders.user-page-size:100}")
+    private int userPageSize;
+
+    @Value("${app.reminders.catch-up-hours:3}")
+    private int catchUpHours;
+
+    // Hours before this may have been sent by an earlier process that didn't record them
+    private final LocalDateTime startedAt = LocalDateTime.now();
+
+    // Last counted number of due items; the gauge reads this instead of querying on scrape
+    private final AtomicLong dueBacklog = new AtomicLong();
+
+    @PostConstruct
+    void registerGauges() {
+        Gauge.builder("study.items.due", dueBacklog, AtomicLong::get)
+                .description("Study items due for review across all users")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.metrics.due-backlog-refresh:PT5M}")
+    public void refreshDueBacklog() {
+        dueBacklog.set(studyItemRepository.countByNextReviewAtLessThanEqual(LocalDateTime.now()));
+    }
+
+    /**
+     * Hourly: reminds the users whose local 09:00 falls in the current UTC hour.
+     * Users are selected by their precomputed reminder bucket, so each run only
+     * touches roughly 1/24 of the user base. Every hour sent is claimed in
+     * job_runs, so with {@code app.cluster.enabled} only one replica sends it,
+     * and a run that starts late also sends the hours of the last
+     * {@code catch-up-hours} that nobody claimed, oldest first. Only hours
+     * that began while this process was running are caught up.
+     */
+    @Scheduled(cron = "${app.reminders.cron:0 0 * * * *}")
+    public void sendHourlyReminders() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime currentHour = now.truncatedTo(ChronoUnit.HOURS);
+        Limit pageLimit = Limit.of(Math.max(1, userPageSize));
+        for (int hoursBack = Math.max(1, catchUpHours) - 1; hoursBack >= 0; hoursBack--) {
+            LocalDateTime hour = currentHour.minusHours(hoursBack);
+            if (hoursBack > 0 && hour.isBefore(startedAt)) {
+                continue;
+            }
+            int bucket = hour.getHour();
+            String jobName = "reminders-utc-" + bucket;
+            if (!jobRunClaims.claimRecorded(jobName + "@" + hour.toLocalDate())) {
+                continue;
+            }
+            if (hoursBack > 0) {
+                log.warn("Reminders for {}:00 UTC were not sent on time, sending them now.", bucket);
+            }
+            sendReminders(jobName, "hourly", now,
+                    afterUserId -> userRepository.findDueUserIdsInReminderBucketAfter(bucket, now, afterUserId,
+                            pageLimit));
+        }
+    }
+
+    /**
+     * Reminds every user with due items regardless of timezone (manual trigger).
+     */
     public void sendDailyReminders() {
-        log.info("Starting Daily Reminder Job...");
         LocalDateTime now = LocalDateTime.now();
-        List<StudyItem> dueItems = studyItemRepository.findAllDueItems(now);
+        Limit pageLimit = Limit.of(Math.max(1, userPageSize));
+        sendReminders("daily-reminders", "manual", now,
+                afterUserId -> studyItemRepository.findDueUserIdsAfter(now, afterUserId, pageLimit));
+    }
 
-        if (dueItems.isEmpty()) {
-            log.info("No items due for review today.");
-            return;
+    /**
+     * Recomputes reminder buckets per distinct timezone so DST changes move users
+     * to the right UTC hour. Runs once a day and at startup, which also fills in
+     * buckets for users created before buckets existed.
+     */
+    @Scheduled(cron = "${app.reminders.bucket-refresh-cron:0 30 0 * * *}")
+    @EventListener(ApplicationReadyEvent.class)
+    public void refreshReminderBuckets() {
+        ZonedDateTime now = ZonedDateTime.now(ZoneOffset.UTC);
+        int moved = 0;
+        for (String timezone : userRepository.findDistinctTimezones()) {
+            moved += userRepository.updateReminderBucket(timezone, ReminderBucket.forTimezone(timezone, now));
+        }
+        if (moved > 0) {
+            log.info("Moved {} users to a new reminder bucket.", moved);
         }
+    }
+
+    /**
+     * Walks users with due items in id order, one keyset page at a time, and loads
+     * only the projected rows for that page. Memory stays bounded by the page size
+     * no matter how many items are due, and no transaction spans the mail sends.
+     */
+    private void sendReminders(String jobName, String jobType, LocalDateTime now,
+            Function<UUID, List<UUID>> nextUserPage) {
+        log.info("Starting Reminder Job {}...", jobName);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        UUID afterUserId = FIRST_USER_ID;
+        int usersNotified = 0;
+
+        MailDispatcher.DispatchRun dispatch = mailDispatcher.startRun(jobName);
+        try {
+            while (true) {
+                List<UUID> userIds = nextUserPage.apply(afterUserId);
+                if (userIds.isEmpty()) {
+                    break;
+                }
+                List<DueReminderRow> rows = studyItemRepository.findDueReminderRows(now, userIds);
+                usersNotified += queueDigests(rows, dispatch);
+                afterUserId = userIds.get(userIds.size() - 1);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Reminder Job {} interrupted after queueing {} digests.", jobName, usersNotified);
+        } finally {
+            awaitDispatch(dispatch);
+            // Tagged by job type, not name, so the 24 hourly buckets share one series
+            sample.stop(meterRegistry.timer("reminders.run", "job", jobType));
+            meterRegistry.counter("reminders.digests", "job", jobType).increment(usersNotified);
+        }
+
+        if (usersNotified == 0) {
+            log.info("No items due for review in {}.", jobName);
+        } else {
+            log.info("Reminder Job {} finished for {} users.", jobName, usersNotified);
+        }
+    }
 
-        Map<User, List<StudyItem>> itemsByUser = dueItems.stream()
-                .collect(Collectors.groupingBy(StudyItem::getUser));
+    private void awaitDispatch(MailDispatcher.DispatchRun dispatch) {
+        try {
+            dispatch.awaitCompletion();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted while waiting for reminder emails to be sent.");
+        }
+    }
 
-        for (Map.Entry<User, List<StudyItem>> entry : itemsByUser.entrySet()) {
-            User user = entry.getKey();
-            List<StudyItem> items = entry.getValue();
+    /**
+     * Rows arrive ordered by user, so each run of equal user ids is one digest.
+     * Rendering happens here; delivery happens on the dispatcher's workers.
+     */
+    private int queueDigests(List<DueReminderRow> rows, MailDispatcher.DispatchRun dispatch)
+            throws InterruptedException {
+        int digests = 0;
+        int from = 0;
+        while (from < rows.size()) {
+            UUID userId = rows.get(from).userId();
+            int to = from;
+            while (to < rows.size() && rows.get(to).userId().equals(userId)) {
+                to++;
+            }
+            List<DueReminderRow> items = rows.subList(from, to);
+            DueReminderRow first = items.get(0);
             try {
-                sendEmail(user, items);
-            } catch (Exception e) {
-                log.error("Failed to send email to {}", user.getEmail(), e);
+                dispatch.submit(buildEmail(first.email(), first.leetcodeUsername(), items));
+                digests++;
+            } catch (MessagingException e) {
+                log.error("Failed to build email for {}", first.email(), e);
             }
+            from = to;
         }
+        return digests;
     }
 
-    private void sendEmail(User user, List<StudyItem> items) throws MessagingException {
+    private MimeMessage buildEmail(String email, String username, List<DueReminderRow> items)
+            throws MessagingException {
         String subject = "Time to Code: " + items.size() + " Problems Due Today";
 
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+        if (fromEmail != null) {
+            helper.setFrom(fromEmail);
+        }
+        if (email != null) {
+            helper.setTo(email);
+        }
+        helper.setSubject(subject);
+        String text = renderDigestHtml(username, items);
+        if (text != null)
+            helper.setText(text, true); // true = html
+
+        log.debug("Queued reminder email to {} with {} items.", email, items.size());
+        return message;
+    }
+
+    /**
+     * Renders the HTML body of one user's digest.
+     */
+    public static String renderDigestHtml(String username, List<DueReminderRow> items) {
         StringBuilder body = new StringBuilder();
         body.append("<html><body>");
-        body.append("<h2>Hello, ").append(user.getLeetcodeUsername()).append("!</h2>");
+        body.append("<h2>Hello, ").append(username).append("!</h2>");
         body.append("<p>You have <strong>").append(items.size()).append("</strong> problems due for review today:</p>");
         body.append("<ul>");
 
-        for (StudyItem item : items) {
-            String title = item.getQuestion().getTitle();
-            String url = item.getQuestion().getUrl();
+        for (DueReminderRow item : items) {
+            String title = item.questionTitle();
+            String url = item.questionUrl();
             body.append("<li><a href=\"").append(url).append("\">").append(title).append("</a></li>");
         }
 
         body.append("</ul>");
         body.append("<p>Happy Coding!</p>");
         body.append("</body></html>");
-
-        MimeMessage message = mailSender.createMimeMessage();
-        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-        if (fromEmail != null) {
-            helper.setFrom(fromEmail);
-        }
-        if (user.getEmail() != null) {
-            String email = user.getEmail();
-            if (email != null)
-                helper.setTo(email);
-        }
-        helper.setSubject(subject);
-        String text = body.toString();
-        if (text != null)
-            helper.setText(text, true); // true = html
-
-        mailSender.send(message);
-        log.info("Sent reminder email to {} with {} items.", user.getEmail(), items.size());
+        return body.toString();
     }
 }
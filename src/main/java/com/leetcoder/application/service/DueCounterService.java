@@ -0,0 +1,339 @@
+package com.leetcoder.application.service;
+
+import com.leetcoder.domain.projection.ActivityDay;
+import com.leetcoder.domain.projection.DueCountRow;
+import com.leetcoder.domain.scheduling.ReviewEvent;
+import com.leetcoder.infrastructure.repository.UserStatsRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Per-user summaries behind the stats endpoint: how many scheduled items fall
+ * due on each day, per difficulty, and how many reviews were done each day.
+ * Every schedule change moves one item from its old due day to its new one,
+ * so the summary is kept current with a -1/+1 applied in the transaction of
+ * the change. Bulk operations that rewrite many items at once (resets, shifts,
+ * replays) recount the affected users from study_items instead.
+ * <p>
+ * Days are UTC dates, like the stored timestamps. Unscheduled items are not
+ * counted. If the tables are empty on startup while items exist, they are
+ * rebuilt once in the background. With {@code app.stats.enabled=false}
+ * nothing is maintained, for databases without unnest() and upserts.
+ */
+@Service
+@Slf4j
+public class DueCounterService {
+
+    private final UserStatsRepository userStatsRepository;
+    private final ReviewHistoryService reviewHistory;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+    private final boolean enabled;
+    private final int maxDays;
+
+    public DueCounterService(UserStatsRepository userStatsRepository, ReviewHistoryService reviewHistory,
+            TransactionTemplate transactionTemplate, Clock clock,
+            @Value("${app.stats.enabled:true}") boolean enabled,
+            @Value("${app.stats.max-days:365}") int maxDays) {
+        this.userStatsRepository = userStatsRepository;
+        this.reviewHistory = reviewHistory;
+        this.transactionTemplate = transactionTemplate;
+        this.clock = clock;
+        this.enabled = enabled;
+        this.maxDays = Math.max(1, maxDays);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Folds the schedule changes of the events into the summaries, in the
+     * caller's transaction.
+     *
+     * @return the users whose items the events belong to, or null when disabled
+     */
+    public Set<UUID> apply(Collection<ReviewEvent> events) {
+        if (!enabled) {
+            return null;
+        }
+        Set<UUID> userIds = new HashSet<>();
+        if (events.isEmpty()) {
+            return userIds;
+        }
+        int capacity = events.size() * 2;
+        long[] itemIds = new long[capacity];
+        String[] dueDates = new String[capacity];
+        int[] deltas = new int[capacity];
+        long[] reviewedItemIds = new long[events.size()];
+        String[] reviewDates = new String[events.size()];
+        int[] qualities = new int[events.size()];
+        int changes = 0;
+        int reviews = 0;
+        for (ReviewEvent event : events) {
+            LocalDate from = dueDate(event.before() == null ? null : event.before().nextReviewAt());
+            LocalDate to = dueDate(event.after().nextReviewAt());
+            if (from != null && !from.equals(to)) {
+                itemIds[changes] = event.studyItemId();
+                dueDates[changes] = from.toString();
+                deltas[changes++] = -1;
+            }
+            if (to != null && !to.equals(from)) {
+                itemIds[changes] = event.studyItemId();
+                dueDates[changes] = to.toString();
+                deltas[changes++] = 1;
+            }
+            if (event.reviewedAt() != null && (event.source() == ReviewEvent.Source.MANUAL
+                    || event.source() == ReviewEvent.Source.SYNC)) {
+                reviewedItemIds[reviews] = event.studyItemId();
+                reviewDates[reviews] = event.reviewedAt().toLocalDate().toString();
+                qualities[reviews++] = event.quality();
+            }
+        }
+        if (changes > 0) {
+            userIds.addAll(userStatsRepository.applyDueDeltas(trim(itemIds, changes), trim(dueDates, changes),
+                    trim(deltas, changes)));
+        }
+        if (reviews > 0) {
+            userIds.addAll(userStatsRepository.addActivity(trim(reviewedItemIds, reviews),
+                    trim(reviewDates, reviews), trim(qualities, reviews)));
+        }
+        return userIds;
+    }
+
+    /**
+     * Rebuilds the due counts of the users from study_items, joining the
+     * caller's transaction if there is one.
+     */
+    public void recountUsers(Collection<UUID> userIds) {
+        if (enabled && !userIds.isEmpty()) {
+            UUID[] ids = userIds.toArray(UUID[]::new);
+            transactionTemplate.executeWithoutResult(status -> userStatsRepository.recountDue(ids));
+        }
+    }
+
+    /**
+     * @return the users recounted, or null when disabled
+     */
+    public List<UUID> recountUsersOfItems(Collection<Long> studyItemIds) {
+        if (!enabled) {
+            return null;
+        }
+        if (studyItemIds.isEmpty()) {
+            return List.of();
+        }
+        List<UUID> userIds = userStatsRepository.findUserIdsByItemIds(
+                studyItemIds.stream().mapToLong(Long::longValue).toArray());
+        recountUsers(userIds);
+        return userIds;
+    }
+
+    /**
+     * @return the users recounted, or null when disabled
+     */
+    public List<UUID> recountUsersOfQuestions(Collection<String> titleSlugs) {
+        if (!enabled) {
+            return null;
+        }
+        if (titleSlugs.isEmpty()) {
+            return List.of();
+        }
+        List<UUID> userIds = userStatsRepository.findUserIdsByQuestions(titleSlugs.toArray(String[]::new));
+        recountUsers(userIds);
+        return userIds;
+    }
+
+    public void recountAll() {
+        if (enabled) {
+            transactionTemplate.executeWithoutResult(status -> userStatsRepository.recountAllDue());
+        }
+    }
+
+    /**
+     * Builds the summaries for data written before they existed.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        if (!enabled) {
+            return;
+        }
+        Thread.ofVirtual().name("due-counter-backfill").start(() -> {
+            try {
+                if (!userStatsRepository.hasDueCounts() && userStatsRepository.hasScheduledItems()) {
+                    recountAll();
+                    log.info("Built per-user due counts from study items.");
+                }
+                if (reviewHistory.isActive() && !userStatsRepository.hasActivity()) {
+                    int days = userStatsRepository.backfillActivity();
+                    if (days > 0) {
+                        log.info("Built {} days of review activity from review history.", days);
+                    }
+                }
+            } catch (DataAccessException e) {
+                log.warn("Could not build per-user stats: {}", e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Drops summary rows whose items have all moved to other days.
+     */
+    @Scheduled(cron = "${app.stats.cleanup-cron:0 55 0 * * *}")
+    public void deleteEmptyCounts() {
+        if (!enabled) {
+            return;
+        }
+        int deleted = userStatsRepository.deleteEmptyDueCounts();
+        if (deleted > 0) {
+            log.info("Deleted {} empty due-count rows.", deleted);
+        }
+    }
+
+    /**
+     * Mean quality of the user's reviews over the last {@code days} days, or
+     * null if there were none or stats are disabled.
+     */
+    public Double averageQuality(UUID userId, int days) {
+        if (!enabled) {
+            return null;
+        }
+        return userStatsRepository.findAverageQuality(userId, LocalDate.now(clock).minusDays(days - 1L));
+    }
+
+    /**
+     * The user's due histogram for the next {@code days} days, totals by
+     * difficulty and review streak. Reads one row per due day and difficulty
+     * plus one per active day, however many items the user has.
+     *
+     * @throws IllegalArgumentException if {@code days} is out of range
+     * @throws IllegalStateException    if stats are disabled
+     */
+    public UserStats getStats(UUID userId, int days) {
+        if (!enabled) {
+            throw new IllegalStateException("Study stats are not enabled");
+        }
+        if (days < 1 || days > maxDays) {
+            throw new IllegalArgumentException("days must be between 1 and " + maxDays);
+        }
+        LocalDate today = LocalDate.now(clock);
+        LocalDate end = today.plusDays(days);
+        int[] dueByDay = new int[days];
+        int overdue = 0;
+        Map<String, int[]> byDifficulty = new TreeMap<>();
+        for (DueCountRow row : userStatsRepository.findDueCounts(userId)) {
+            int[] totals = byDifficulty.computeIfAbsent(row.difficulty(), d -> new int[2]);
+            totals[0] += row.itemCount();
+            if (row.dueDate().isBefore(today)) {
+                overdue += row.itemCount();
+                totals[1] += row.itemCount();
+            } else if (row.dueDate().isBefore(end)) {
+                dueByDay[(int) (row.dueDate().toEpochDay() - today.toEpochDay())] += row.itemCount();
+                if (row.dueDate().equals(today)) {
+                    totals[1] += row.itemCount();
+                }
+            }
+        }
+
+        List<DayCount> histogram = new ArrayList<>(days);
+        for (int i = 0; i < days; i++) {
+            histogram.add(new DayCount(today.plusDays(i), dueByDay[i]));
+        }
+        Map<String, DifficultyTotals> difficulties = new LinkedHashMap<>();
+        byDifficulty.forEach((difficulty, totals) ->
+                difficulties.put(difficulty, new DifficultyTotals(totals[0], totals[1])));
+        return new UserStats(today, overdue, overdue + dueByDay[0], histogram, difficulties,
+                streak(userStatsRepository.findActivity(userId), today));
+    }
+
+    private static Streak streak(List<ActivityDay> activity, LocalDate today) {
+        if (activity.isEmpty()) {
+            return new Streak(0, 0, null, 0, 0);
+        }
+        // Most recent first: a run of consecutive days ends wherever the gap to the next day is more than one
+        int current = 0;
+        int longest = 0;
+        int run = 0;
+        LocalDate previous = null;
+        for (ActivityDay day : activity) {
+            boolean consecutive = previous != null && day.date().equals(previous.minusDays(1));
+            if (!consecutive && previous != null && current == 0) {
+                current = run;
+            }
+            run = consecutive ? run + 1 : 1;
+            longest = Math.max(longest, run);
+            previous = day.date();
+        }
+        if (current == 0) {
+            current = run;
+        }
+        ActivityDay latest = activity.get(0);
+        // A streak is still running until a whole day passes without reviews
+        if (latest.date().isBefore(today.minusDays(1))) {
+            current = 0;
+        }
+        int reviewsToday = latest.date().equals(today) ? latest.reviewCount() : 0;
+        return new Streak(current, longest, latest.date(), reviewsToday, activity.size());
+    }
+
+    private static LocalDate dueDate(LocalDateTime nextReviewAt) {
+        return nextReviewAt == null ? null : nextReviewAt.toLocalDate();
+    }
+
+    private static long[] trim(long[] values, int length) {
+        return values.length == length ? values : Arrays.copyOf(values, length);
+    }
+
+    private static int[] trim(int[] values, int length) {
+        return values.length == length ? values : Arrays.copyOf(values, length);
+    }
+
+    private static String[] trim(String[] values, int length) {
+        return values.length == length ? values : Arrays.copyOf(values, length);
+    }
+
+    /**
+     * @param dueToday items due by the end of today, overdue ones included
+     * @param dueByDay items falling due on each day from today on, one entry per day
+     */
+    public record UserStats(LocalDate today, int overdue, int dueToday, List<DayCount> dueByDay,
+            Map<String, DifficultyTotals> byDifficulty, Streak streak) {
+    }
+
+    public record DayCount(LocalDate date, int due) {
+    }
+
+    /**
+     * @param scheduled all scheduled items of the difficulty
+     * @param dueToday  those due by the end of today
+     */
+    public record DifficultyTotals(int scheduled, int dueToday) {
+    }
+
+    /**
+     * @param current    consecutive days with reviews up to today, or up to yesterday
+     *                   if there are none yet today
+     * @param activeDays days with at least one review
+     */
+    public record Streak(int current, int longest, LocalDate lastActiveDate, int reviewsToday, int activeDays) {
+    }
+}
@@ -0,0 +1,85 @@
+package com.leetcoder.application.service;
+
+import com.leetcoder.domain.projection.DueItemView;
+import com.leetcoder.domain.scheduling.Sm2Engine;
+import com.leetcoder.infrastructure.repository.StudyItemRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Pages through a user's due items in review order. Pages are keyset-based on
+ * (nextReviewAt, id): the cursor carries the last row of the previous page, so
+ * every page is an index range scan no matter how deep the client has paged.
+ */
+@Service
+public class DueQueueService {
+
+    private final StudyItemRepository studyItemRepository;
+    private final Sm2Engine sm2Engine;
+    private final int maxPageSize;
+
+    public DueQueueService(StudyItemRepository studyItemRepository, Sm2Engine sm2Engine,
+            @Value("${app.due.max-page-size:200}") int maxPageSize) {
+        this.studyItemRepository = studyItemRepository;
+        this.sm2Engine = sm2Engine;
+        this.maxPageSize = Math.max(1, maxPageSize);
+    }
+
+    /**
+     * @param cursor {@code nextCursor} of the previous page, or null for the first page
+     * @throws IllegalArgumentException if the limit is not positive or the cursor is malformed
+     */
+    public DuePage findDue(UUID userId, int limit, String cursor) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be positive");
+        }
+        int pageSize = Math.min(limit, maxPageSize);
+        LocalDateTime now = sm2Engine.now();
+
+        List<DueItemView> items;
+        if (cursor == null || cursor.isBlank()) {
+            items = studyItemRepository.findDueItems(userId, now, Limit.of(pageSize));
+        } else {
+            Cursor after = Cursor.decode(cursor);
+            items = studyItemRepository.findDueItemsAfter(userId, now, after.nextReviewAt(), after.studyItemId(),
+                    Limit.of(pageSize));
+        }
+
+        String nextCursor = items.size() < pageSize ? null : Cursor.after(items.get(items.size() - 1)).encode();
+        return new DuePage(items, nextCursor);
+    }
+
+    public record DuePage(List<DueItemView> items, String nextCursor) {
+    }
+
+    private record Cursor(LocalDateTime nextReviewAt, long studyItemId) {
+
+        static Cursor after(DueItemView last) {
+            return new Cursor(last.nextReviewAt(), last.studyItemId());
+        }
+
+        String encode() {
+            String raw = nextReviewAt + "|" + studyItemId;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = raw.lastIndexOf('|');
+                return new Cursor(LocalDateTime.parse(raw.substring(0, separator)),
+                        Long.parseLong(raw.substring(separator + 1)));
+            } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.leetcoder.application.service;
+
+import com.leetcoder.config.ClusterNode;
+import com.leetcoder.infrastructure.repository.JobRunRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Lets exactly one replica run each firing of a scheduled job. The first node
+ * to insert the run's key wins; the others skip that run. Runs claimed with
+ * {@link #claimRecorded} are recorded even on a single node, so a late
+ * firing can tell which earlier runs never happened.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class JobRunClaimService {
+
+    private final JobRunRepository jobRunRepository;
+    private final ClusterNode clusterNode;
+
+    @Value("${app.cluster.enabled:false}")
+    private boolean clusterEnabled;
+
+    @Value("${app.cluster.job-run-retention:30d}")
+    private Duration retention;
+
+    /**
+     * @param runKey identifies one firing, e.g. job name plus the hour it covers
+     * @return true if this node should run it; always true when clustering is off
+     */
+    public boolean tryClaim(String runKey) {
+        if (!clusterEnabled) {
+            return true;
+        }
+        boolean claimed = jobRunRepository.claim(runKey, clusterNode.id()) == 1;
+        if (!claimed) {
+            log.info("Run {} already claimed by another node, skipping.", runKey);
+        }
+        return claimed;
+    }
+
+    /**
+     * Like {@link #tryClaim}, but records the run whether clustering is on or not.
+     *
+     * @return true if the run wasn't claimed before, by this node or another
+     */
+    public boolean claimRecorded(String runKey) {
+        boolean claimed = jobRunRepository.claim(runKey, clusterNode.id()) == 1;
+        if (!claimed && clusterEnabled) {
+            log.info("Run {} already claimed, skipping.", runKey);
+        }
+        return claimed;
+    }
+
+    @Scheduled(cron = "${app.cluster.job-run-cleanup-cron:0 45 0 * * *}")
+    public void purgeOldRuns() {
+        jobRunRepository.deleteClaimedBefore(LocalDateTime.now().minus(retention));
+    }
+}
@@ -1,125 +1,480 @@
 package com.leetcoder.application.service;
 
+import com.leetcoder.config.ClusterNode;
 import com.leetcoder.domain.entity.Question;
 import com.leetcoder.domain.entity.StudyItem;
 import com.leetcoder.domain.entity.User;
+import com.leetcoder.domain.scheduling.ReviewEvent;
 import com.leetcoder.infrastructure.client.LeetCodeClient;
 import com.leetcoder.infrastructure.client.LeetCodeClient.QuestionDto;
 import com.leetcoder.infrastructure.client.LeetCodeClient.SubmissionDto;
 import com.leetcoder.infrastructure.repository.QuestionRepository;
 import com.leetcoder.infrastructure.repository.StudyItemRepository;
+import com.leetcoder.infrastructure.repository.SyncTaskRepository;
 import com.leetcoder.infrastructure.repository.UserRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class LeetCodeSyncService {
 
+    // An accepted solve, first or repeated, counts as a review with quality 4
+    private static final int IMPLICIT_QUALITY = 4;
+
+    private static final String QUESTIONS_PRIMARY_KEY = "questions_pkey";
+
     private final UserRepository userRepository;
     private final QuestionRepository questionRepository;
+    private final QuestionCatalogService questionCatalog;
     private final StudyItemRepository studyItemRepository;
     private final LeetCodeClient leetCodeClient;
     private final SpacedRepetitionService sm2Service;
+    private final ScheduleChangeService scheduleChanges;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final SyncTaskRepository syncTaskRepository;
+    private final ClusterNode clusterNode;
+
+    @Value("${app.sync.parallel.enabled:true}")
+    private boolean parallelSyncEnabled;
+
+    @Value("${app.sync.parallel.max-concurrency:5}")
+    private int maxConcurrency;
+
+    @Value("${app.sync.conflict-max-attempts:3}")
+    private int conflictMaxAttempts;
+
+    @Value("${app.cluster.enabled:false}")
+    private boolean clusterEnabled;
+
+    @Value("${app.cluster.lease:5m}")
+    private Duration lease;
+
+    @Value("${app.cluster.sync-dedup-window:1h}")
+    private Duration syncDedupWindow;
+
+    // Users currently being synced, so overlapping runs don't sync the same user twice
+    private final Set<UUID> inFlightUsers = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    void registerGauges() {
+        Gauge.builder("sync.users.in.flight", inFlightUsers, Set::size)
+                .description("Users whose LeetCode sync is currently running")
+                .register(meterRegistry);
+    }
 
-    // Run every 6 hours
+    /**
+     * Run every 6 hours. With {@code app.cluster.enabled} every replica first
+     * requests a sync of all users in the sync_tasks table, then they split the
+     * work by leasing tasks; the report covers only this node's share.
+     */
     @Scheduled(cron = "${app.sync.cron:0 0 */6 * * *}")
-    public void syncAllUsers() {
-        log.info("Starting LeetCode Sync...");
-        List<User> users = userRepository.findAll();
-        for (User user : users) {
-            try {
-                syncUser(user);
-            } catch (Exception e) {
-                log.error("Failed to sync user: {}", user.getLeetcodeUsername(), e);
+    public SyncRunReport syncAllUsers() {
+        log.info("Starting LeetCode Sync (parallel={}, maxConcurrency={}, cluster={})...", parallelSyncEnabled,
+                maxConcurrency, clusterEnabled);
+        long start = System.nanoTime();
+
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        AtomicInteger skipped = new AtomicInteger();
+
+        int totalUsers;
+        if (clusterEnabled) {
+            syncTaskRepository.requestAll(syncDedupWindow.toSeconds());
+            totalUsers = syncClaimedTasks(succeeded, failed, skipped);
+        } else {
+            List<User> users = userRepository.findAll();
+            syncUsers(users, succeeded, failed, skipped);
+            totalUsers = users.size();
+        }
+
+        SyncRunReport report = new SyncRunReport(Duration.ofNanos(System.nanoTime() - start), totalUsers,
+                succeeded.get(), failed.get(), skipped.get());
+        log.info("LeetCode Sync Completed in {} ms: {} users, {} succeeded, {} failed, {} skipped.",
+                report.duration().toMillis(), report.totalUsers(), report.succeeded(), report.failed(),
+                report.skipped());
+        recordRun(report);
+        return report;
+    }
+
+    /**
+     * Picks up sync tasks left pending by a replica that died mid-run, once its
+     * leases have expired, and any run this node joined late.
+     */
+    @Scheduled(fixedDelayString = "${app.cluster.reclaim-interval:PT1M}")
+    public void syncPendingTasks() {
+        if (!clusterEnabled) {
+            return;
+        }
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        AtomicInteger skipped = new AtomicInteger();
+        int claimed = syncClaimedTasks(succeeded, failed, skipped);
+        if (claimed > 0) {
+            log.info("Synced {} pending sync tasks: {} succeeded, {} failed, {} skipped.", claimed,
+                    succeeded.get(), failed.get(), skipped.get());
+        }
+    }
+
+    /**
+     * Leases pending tasks in batches of {@code max-concurrency} until none are
+     * left. Each batch is completed after it ran, failed or not; a failed user
+     * waits for the next run just like on a single node.
+     *
+     * @return the number of tasks this node claimed
+     */
+    private int syncClaimedTasks(AtomicInteger succeeded, AtomicInteger failed, AtomicInteger skipped) {
+        int batchSize = Math.max(1, maxConcurrency);
+        int claimed = 0;
+        while (true) {
+            List<UUID> userIds = syncTaskRepository.claim(clusterNode.id(), lease.toSeconds(), batchSize);
+            if (userIds.isEmpty()) {
+                return claimed;
             }
+            claimed += userIds.size();
+            syncUsers(userRepository.findAllById(userIds), succeeded, failed, skipped);
+            syncTaskRepository.complete(userIds, clusterNode.id());
         }
-        log.info("LeetCode Sync Completed.");
     }
 
-    // Public so it can be triggered manually if needed
-    @Transactional
-    public void syncUser(User user) {
+    private void syncUsers(List<User> users, AtomicInteger succeeded, AtomicInteger failed,
+            AtomicInteger skipped) {
+        if (parallelSyncEnabled) {
+            syncInParallel(users, succeeded, failed, skipped);
+        } else {
+            for (User user : users) {
+                syncIsolated(user, succeeded, failed, skipped);
+            }
+        }
+    }
+
+    /**
+     * Fans users out over virtual threads. The semaphore caps how many syncs are
+     * in flight at once; every LeetCode call still goes through the client's
+     * rate limiter, so the cap mostly bounds DB connections and queued permits.
+     */
+    private void syncInParallel(List<User> users, AtomicInteger succeeded, AtomicInteger failed,
+            AtomicInteger skipped) {
+        Semaphore permits = new Semaphore(Math.max(1, maxConcurrency));
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (User user : users) {
+                try {
+                    permits.acquire();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    log.warn("LeetCode Sync interrupted, remaining users will not be synced.");
+                    break;
+                }
+                executor.submit(() -> {
+                    try {
+                        syncIsolated(user, succeeded, failed, skipped);
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+        } // close() waits for all submitted syncs to finish
+    }
+
+    private void syncIsolated(User user, AtomicInteger succeeded, AtomicInteger failed, AtomicInteger skipped) {
+        if (user.getLeetcodeUsername() == null || user.getLeetcodeUsername().isBlank()) {
+            skipped.incrementAndGet();
+            return;
+        }
+        try {
+            if (trySyncUser(user).isPresent()) {
+                succeeded.incrementAndGet();
+            } else {
+                skipped.incrementAndGet();
+            }
+        } catch (Exception e) {
+            failed.incrementAndGet();
+            log.error("Failed to sync user: {}", user.getLeetcodeUsername(), e);
+        }
+    }
+
+    /**
+     * Syncs the user unless a sync for them is already running in this process,
+     * whether from a scheduled run, the task queue or an on-demand job.
+     *
+     * @return the number of study items created or updated, or empty if the user was already being synced
+     */
+    public OptionalInt trySyncUser(User user) {
+        if (!inFlightUsers.add(user.getId())) {
+            log.info("Sync already in progress for user {}, skipping.", user.getLeetcodeUsername());
+            return OptionalInt.empty();
+        }
+        try {
+            return OptionalInt.of(syncUser(user));
+        } finally {
+            inFlightUsers.remove(user.getId());
+        }
+    }
+
+    public record SyncRunReport(Duration duration, int totalUsers, int succeeded, int failed, int skipped) {
+    }
+
+    private void recordRun(SyncRunReport report) {
+        meterRegistry.timer("sync.run").record(report.duration());
+        meterRegistry.counter("sync.users", "result", "succeeded").increment(report.succeeded());
+        meterRegistry.counter("sync.users", "result", "failed").increment(report.failed());
+        meterRegistry.counter("sync.users", "result", "skipped").increment(report.skipped());
+    }
+
+    /**
+     * Syncs the user without checking for a sync already running for them;
+     * application code goes through {@link #trySyncUser} instead.
+     *
+     * @return the number of study items created or updated, 0 if there was nothing new
+     */
+    public int syncUser(User user) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failed";
+        try {
+            int changed = syncNewSolves(user);
+            outcome = changed > 0 ? "updated" : "unchanged";
+            return changed;
+        } finally {
+            sample.stop(Timer.builder("sync.user")
+                    .description("Duration of one user's LeetCode sync")
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+
+    private int syncNewSolves(User user) {
         log.info("Syncing user: {}", user.getLeetcodeUsername());
         List<SubmissionDto> submissions = leetCodeClient.getRecentSubmissions(user.getLeetcodeUsername());
 
+        // Only solves newer than the watermark need work. When nothing moved this is
+        // the whole sync: one HTTP call, no queries, no writes.
+        Map<String, LocalDateTime> latestSolves = latestSolvePerSlug(user, submissions);
+        if (latestSolves.isEmpty()) {
+            log.debug("No new submissions for user {}", user.getLeetcodeUsername());
+            return 0;
+        }
+        LocalDateTime newestSolve = Collections.max(latestSolves.values());
+
+        // Network work happens before the transaction so no connection is held during HTTP calls
+        Map<String, Question> knownQuestions = questionCatalog.findAll(latestSolves.keySet());
+        Map<String, QuestionDto> fetchedQuestions = fetchQuestions(latestSolves.keySet(), knownQuestions.keySet());
+
+        AppliedSolves applied;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                applied = applyInTransaction(user, submissions, latestSolves, knownQuestions, fetchedQuestions,
+                        newestSolve);
+                break;
+            } catch (DataIntegrityViolationException e) {
+                if (!isQuestionInsertRace(e) || attempt >= conflictMaxAttempts) {
+                    throw e;
+                }
+                // A parallel sync inserted one of the same new questions first; it is committed now, so reload
+                log.warn("Question insert for user {} lost a race, retrying: {}", user.getLeetcodeUsername(),
+                        e.getMostSpecificCause().getMessage());
+                knownQuestions = questionCatalog.findAll(latestSolves.keySet());
+            }
+        }
+        questionCatalog.putAll(applied.newQuestions());
+        user.setLastSyncedSubmissionAt(newestSolve);
+        return applied.changedItems();
+    }
+
+    /**
+     * Whether the violation is a duplicate key on {@code questions}, the only
+     * one a reload of the known questions can resolve.
+     */
+    private static boolean isQuestionInsertRace(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                return QUESTIONS_PRIMARY_KEY.equalsIgnoreCase(violation.getConstraintName());
+            }
+        }
+        return false;
+    }
+
+    private record AppliedSolves(List<Question> newQuestions, int changedItems) {
+    }
+
+    private AppliedSolves applyInTransaction(User user, List<SubmissionDto> submissions,
+            Map<String, LocalDateTime> latestSolves, Map<String, Question> knownQuestions,
+            Map<String, QuestionDto> fetchedQuestions, LocalDateTime newestSolve) {
+        // A review racing this sync bumps the item version; re-read and re-apply in that case
+        return ConflictRetry.run(conflictMaxAttempts,
+                () -> transactionTemplate.execute(status -> {
+                    AppliedSolves result = applySubmissions(user, submissions, latestSolves, knownQuestions,
+                            fetchedQuestions);
+                    userRepository.advanceSyncWatermark(user.getId(), newestSolve);
+                    return result;
+                }));
+    }
+
+    /**
+     * Reduces the submission list to the newest accepted solve per problem,
+     * ignoring anything at or below the user's sync watermark. Older solves of
+     * the same problem never trigger a review once the newest one has been
+     * applied, so they can be dropped up front.
+     */
+    private Map<String, LocalDateTime> latestSolvePerSlug(User user, List<SubmissionDto> submissions) {
+        LocalDateTime watermark = user.getLastSyncedSubmissionAt();
+        Map<String, LocalDateTime> latest = new HashMap<>();
         for (SubmissionDto sub : submissions) {
+            if (sub.titleSlug() == null) {
+                log.warn("Submission {} has no titleSlug, skipping", sub.id());
+                continue;
+            }
             try {
-                processSubmission(user, sub);
-            } catch (Exception e) {
+                long epochSeconds = Long.parseLong(sub.timestamp());
+                LocalDateTime submissionTime = LocalDateTime.ofEpochSecond(epochSeconds, 0, ZoneOffset.UTC);
+                if (watermark != null && !submissionTime.isAfter(watermark)) {
+                    continue;
+                }
+                latest.merge(sub.titleSlug(), submissionTime, (a, b) -> a.isAfter(b) ? a : b);
+            } catch (RuntimeException e) {
                 log.error("Error processing submission {} for user {}", sub.titleSlug(), user.getLeetcodeUsername(), e);
             }
         }
+        return latest;
     }
 
-    private void processSubmission(User user, SubmissionDto sub) {
-        String titleSlug = sub.titleSlug();
-        if (titleSlug == null) {
-            log.warn("Submission {} has no titleSlug, skipping", sub.id());
-            return;
+    /**
+     * Resolves the slugs not yet in the questions table with as few batched
+     * GraphQL calls as possible, instead of one call per slug.
+     */
+    private Map<String, QuestionDto> fetchQuestions(Set<String> slugs, Set<String> knownSlugs) {
+        List<String> missing = new ArrayList<>();
+        for (String slug : slugs) {
+            if (!knownSlugs.contains(slug)) {
+                missing.add(slug);
+            }
         }
 
-        // 1. Lazy Load Question
-        Question question = questionRepository.findById(titleSlug).orElseGet(() -> {
-            QuestionDto qDetails = leetCodeClient.getQuestionDetails(titleSlug);
-            if (qDetails == null) {
-                // Fallback if details fetch fails: create a skeleton
-                return Question.builder()
-                        .titleSlug(titleSlug)
-                        .title(sub.title())
-                        .difficulty("Unknown") // Or handle later
-                        .url("https://leetcode.com/problems/" + titleSlug)
-                        .build();
-            }
-            // Save new question
-            Question newQ = Question.builder()
-                    .titleSlug(qDetails.titleSlug())
-                    .title(qDetails.title())
-                    .difficulty(qDetails.difficulty())
-                    .url("https://leetcode.com/problems/" + qDetails.titleSlug())
-                    .build();
-            @SuppressWarnings("null")
-            Question saved = questionRepository.save(newQ);
-            return saved;
-        });
+        Map<String, QuestionDto> fetched = new HashMap<>();
+        int batchSize = leetCodeClient.getQuestionBatchSize();
+        for (int from = 0; from < missing.size(); from += batchSize) {
+            List<String> batch = missing.subList(from, Math.min(from + batchSize, missing.size()));
+            fetched.putAll(leetCodeClient.getQuestionDetails(batch));
+        }
+        return fetched;
+    }
 
-        if (question == null)
-            return; // Should not happen due to orElseGet logic but for safety
+    /**
+     * Applies a user's solves with one lookup for their existing study items and
+     * one batched flush for all new questions, new items and updated items.
+     *
+     * @return the questions inserted along the way and the number of items written
+     */
+    private AppliedSolves applySubmissions(User user, List<SubmissionDto> submissions, Map<String, LocalDateTime> latestSolves,
+            Map<String, Question> knownQuestions, Map<String, QuestionDto> fetchedQuestions) {
+        Map<String, StudyItem> existingItems = new HashMap<>();
+        for (StudyItem item : studyItemRepository.findAllByUserAndQuestionTitleSlugIn(user, latestSolves.keySet())) {
+            existingItems.put(item.getQuestion().getTitleSlug(), item);
+        }
 
-        // 2. Parse Timestamp
-        long epochSeconds = Long.parseLong(sub.timestamp());
-        LocalDateTime submissionTime = LocalDateTime.ofEpochSecond(epochSeconds, 0, ZoneOffset.UTC);
+        Map<String, String> submittedTitles = new HashMap<>();
+        for (SubmissionDto sub : submissions) {
+            if (sub.titleSlug() != null) {
+                submittedTitles.putIfAbsent(sub.titleSlug(), sub.title());
+            }
+        }
 
-        // 3. Find or Create StudyItem
-        Optional<StudyItem> existingItemOpt = studyItemRepository.findByUserAndQuestionTitleSlug(user, titleSlug);
+        List<Question> newQuestions = new ArrayList<>();
+        List<StudyItem> changedItems = new ArrayList<>();
+        // Parallel to changedItems; new items get their ids only once saved
+        List<SpacedRepetitionService.ReviewResult> results = new ArrayList<>();
+        List<ReviewEvent.State> beforeStates = new ArrayList<>();
+        for (Map.Entry<String, LocalDateTime> solve : latestSolves.entrySet()) {
+            String titleSlug = solve.getKey();
+            LocalDateTime submissionTime = solve.getValue();
+            StudyItem item = existingItems.get(titleSlug);
 
-        if (existingItemOpt.isEmpty()) {
-            // Scenario A: New Item (Implicit Review)
-            createFirstReview(user, question, submissionTime);
-        } else {
-            // Scenario B: Existing Item
-            StudyItem item = existingItemOpt.get();
-            if (item.getLastReviewedAt() == null || submissionTime.isAfter(item.getLastReviewedAt())) {
-                // User solved it again implies review
-                updateReview(item, submissionTime);
+            if (item == null) {
+                // Scenario A: New Item (Implicit Review)
+                Question question = knownQuestions.get(titleSlug);
+                if (question == null) {
+                    question = newQuestion(titleSlug, submittedTitles.get(titleSlug), fetchedQuestions.get(titleSlug));
+                    newQuestions.add(question);
+                }
+                SpacedRepetitionService.ReviewResult result = sm2Service.calculateNextReview(2.5, 0, 0,
+                        IMPLICIT_QUALITY);
+                changedItems.add(createFirstReview(user, question, submissionTime, result));
+                results.add(result);
+                beforeStates.add(null);
+            } else if (item.getLastReviewedAt() == null || submissionTime.isAfter(item.getLastReviewedAt())) {
+                // Scenario B: Existing Item, user solved it again which implies review
+                beforeStates.add(new ReviewEvent.State(item.getEaseFactor(), item.getIntervalDays(),
+                        item.getRepetitions(), item.getNextReviewAt()));
+                results.add(updateReview(user, item, submissionTime));
+                changedItems.add(item);
             }
         }
+
+        questionRepository.saveAll(newQuestions);
+        // Flushed so the due counters can look the new items and questions up
+        studyItemRepository.saveAllAndFlush(changedItems);
+        List<ReviewEvent> events = new ArrayList<>(changedItems.size());
+        for (int i = 0; i < changedItems.size(); i++) {
+            StudyItem item = changedItems.get(i);
+            events.add(results.get(i).toEvent(item.getId(), ReviewEvent.Source.SYNC, IMPLICIT_QUALITY,
+                    item.getLastReviewedAt(), beforeStates.get(i)));
+        }
+        scheduleChanges.record(events);
+        log.info("Synced user {}: {} new questions, {} study items created or updated",
+                user.getLeetcodeUsername(), newQuestions.size(), changedItems.size());
+        return new AppliedSolves(newQuestions, changedItems.size());
     }
 
-    private void createFirstReview(User user, Question question, LocalDateTime reviewedAt) {
-        // Quality 4 for implicit first success
-        SpacedRepetitionService.ReviewResult result = sm2Service.calculateNextReview(2.5, 0, 0, 4);
+    private Question newQuestion(String titleSlug, String submittedTitle, QuestionDto qDetails) {
+        if (qDetails == null) {
+            // Fallback if details fetch fails: create a skeleton
+            return Question.builder()
+                    .titleSlug(titleSlug)
+                    .title(submittedTitle)
+                    .difficulty("Unknown") // Or handle later
+                    .url("https://leetcode.com/problems/" + titleSlug)
+                    .build();
+        }
+        return Question.builder()
+                .titleSlug(titleSlug)
+                .title(qDetails.title())
+                .difficulty(qDetails.difficulty())
+                .url("https://leetcode.com/problems/" + titleSlug)
+                .build();
+    }
 
-        StudyItem item = StudyItem.builder()
+    private StudyItem createFirstReview(User user, Question question, LocalDateTime reviewedAt,
+            SpacedRepetitionService.ReviewResult result) {
+        log.debug("Creating StudyItem for user {} - {}", user.getLeetcodeUsername(), question.getTitleSlug());
+        return StudyItem.builder()
                 .user(user)
                 .question(question)
                 .easeFactor(result.easeFactor)
@@ -128,30 +483,22 @@ public class LeetCodeSyncService {
                 .lastReviewedAt(reviewedAt)
                 .nextReviewAt(result.nextReviewAt)
                 .build();
-
-        @SuppressWarnings({ "null", "unused" })
-        StudyItem saved = studyItemRepository.save(item);
-        log.info("Created new StudyItem for user {} - {}", user.getLeetcodeUsername(), question.getTitleSlug());
     }
 
-    private void updateReview(StudyItem item, LocalDateTime reviewedAt) {
-        // Quality 4 for implicit re-solve
+    private SpacedRepetitionService.ReviewResult updateReview(User user, StudyItem item, LocalDateTime reviewedAt) {
         SpacedRepetitionService.ReviewResult result = sm2Service.calculateNextReview(
                 item.getEaseFactor(),
                 item.getIntervalDays(),
                 item.getRepetitions(),
-                4);
+                IMPLICIT_QUALITY);
 
         item.setEaseFactor(result.easeFactor);
         item.setIntervalDays(result.intervalDays);
         item.setRepetitions(result.repetitions);
         item.setLastReviewedAt(reviewedAt);
         item.setNextReviewAt(result.nextReviewAt);
-
-        // storage is not null
-        @SuppressWarnings({ "null", "unused" })
-        StudyItem saved = studyItemRepository.save(item);
-        log.info("Updated StudyItem for user {} - {}", item.getUser().getLeetcodeUsername(),
+        log.debug("Updating StudyItem for user {} - {}", user.getLeetcodeUsername(),
                 item.getQuestion().getTitleSlug());
+        return result;
     }
 }
@@ -0,0 +1,172 @@
+package com.leetcoder.application.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.leetcoder.domain.scheduling.Sm2Engine;
+import com.leetcoder.infrastructure.repository.StudyItemRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntSupplier;
+
+/**
+ * Bulk maintenance of study progress. Every operation is a single set-based
+ * UPDATE, so its cost doesn't depend on round trips per item. Pending
+ * write-behind reviews are flushed first and new ones wait until the operation
+ * has committed, so they can't overwrite the result afterwards; if that flush
+ * fails, the operation fails without changing anything. Resets and shifts are
+ * recorded in review history, and the due counters of the affected users
+ * recounted, in the same transaction.
+ * <p>
+ * Operations that touch every user run one at a time in the background;
+ * {@link #submitResetAll} and {@link #submitShift} return a job whose status
+ * and result stay queryable for {@code job-retention}.
+ */
+@Service
+@Slf4j
+public class ProgressAdminService {
+
+    private final StudyItemRepository studyItemRepository;
+    private final ReviewWriteBehindBuffer reviewBuffer;
+    private final ScheduleChangeService scheduleChanges;
+    private final TransactionTemplate transactionTemplate;
+    private final Sm2Engine sm2Engine;
+    private final Cache<UUID, AdminJob> jobs;
+    private final AtomicReference<AdminJob> running = new AtomicReference<>();
+
+    public ProgressAdminService(StudyItemRepository studyItemRepository, ReviewWriteBehindBuffer reviewBuffer,
+            ScheduleChangeService scheduleChanges, TransactionTemplate transactionTemplate, Sm2Engine sm2Engine,
+            @Value("${app.admin.job-retention:1h}") Duration retention) {
+        this.studyItemRepository = studyItemRepository;
+        this.reviewBuffer = reviewBuffer;
+        this.scheduleChanges = scheduleChanges;
+        this.transactionTemplate = transactionTemplate;
+        this.sm2Engine = sm2Engine;
+        this.jobs = Caffeine.newBuilder()
+                .expireAfterWrite(retention)
+                .maximumSize(100)
+                .build();
+    }
+
+    public int resetUser(UUID userId) {
+        int affected = reviewBuffer.flushAndRun(() -> transactionTemplate.execute(status -> {
+            scheduleChanges.recordReset(userId, sm2Engine.now());
+            int reset = studyItemRepository.resetProgressByUserId(userId);
+            scheduleChanges.recountUser(userId);
+            return reset;
+        }));
+        log.info("Reset progress for user {}: {} items.", userId, affected);
+        return affected;
+    }
+
+    /**
+     * Starts a reset of every user's progress on a background thread.
+     *
+     * @throws IllegalStateException if another bulk operation is already running
+     */
+    public AdminJobView submitResetAll() {
+        return submit("reset-all", this::resetAllUsers);
+    }
+
+    /**
+     * Starts moving every scheduled review by {@code days} on a background thread.
+     *
+     * @throws IllegalStateException if another bulk operation is already running
+     */
+    public AdminJobView submitShift(int days) {
+        return submit("shift " + days + "d", () -> shiftSchedules(days));
+    }
+
+    public Optional<AdminJobView> find(UUID jobId) {
+        return Optional.ofNullable(jobs.getIfPresent(jobId)).map(AdminJob::view);
+    }
+
+    public int resetAllUsers() {
+        int affected = reviewBuffer.flushAndRun(() -> transactionTemplate.execute(status -> {
+            scheduleChanges.recordResetOfAllUsers(sm2Engine.now());
+            int reset = studyItemRepository.resetAllProgress();
+            scheduleChanges.recountAll();
+            return reset;
+        }));
+        log.info("Reset progress for all users: {} items.", affected);
+        return affected;
+    }
+
+    /**
+     * Moves every scheduled review by {@code days} (negative to pull them in).
+     */
+    public int shiftSchedules(int days) {
+        int affected = reviewBuffer.flushAndRun(() -> transactionTemplate.execute(status -> {
+            scheduleChanges.recordShift(days, sm2Engine.now());
+            int shifted = studyItemRepository.shiftAllSchedules(days);
+            scheduleChanges.recountAll();
+            return shifted;
+        }));
+        log.info("Shifted {} scheduled reviews by {} days.", affected, days);
+        return affected;
+    }
+
+    private AdminJobView submit(String operation, IntSupplier work) {
+        AdminJob job = new AdminJob(operation);
+        if (!running.compareAndSet(null, job)) {
+            throw new IllegalStateException("A bulk operation is already running: " + running.get().operation);
+        }
+        jobs.put(job.id, job);
+        Thread.ofVirtual().name("admin-" + operation).start(() -> run(job, work));
+        return job.view();
+    }
+
+    private void run(AdminJob job, IntSupplier work) {
+        try {
+            job.affected = work.getAsInt();
+            job.status = JobStatus.SUCCEEDED;
+        } catch (RuntimeException e) {
+            log.error("Admin job {} ({}) failed", job.id, job.operation, e);
+            job.error = e.getMessage();
+            job.status = JobStatus.FAILED;
+        } finally {
+            job.finishedAt = Instant.now();
+            // Written again so retention counts from the end of the run
+            jobs.put(job.id, job);
+            running.set(null);
+        }
+    }
+
+    public enum JobStatus {
+        RUNNING, SUCCEEDED, FAILED
+    }
+
+    /**
+     * @param affected null until the operation has succeeded
+     * @param error    why the operation failed
+     */
+    public record AdminJobView(UUID jobId, String operation, JobStatus status, Instant startedAt,
+            Instant finishedAt, Integer affected, String error) {
+    }
+
+    private static final class AdminJob {
+
+        private final UUID id = UUID.randomUUID();
+        private final String operation;
+        private final Instant startedAt = Instant.now();
+        private volatile JobStatus status = JobStatus.RUNNING;
+        private volatile Instant finishedAt;
+        private volatile Integer affected;
+        private volatile String error;
+
+        private AdminJob(String operation) {
+            this.operation = operation;
+        }
+
+        private AdminJobView view() {
+            return new AdminJobView(id, operation, status, startedAt, finishedAt, affected, error);
+        }
+    }
+}
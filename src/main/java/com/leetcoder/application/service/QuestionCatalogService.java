@@ -0,0 +1,163 @@
+package com.leetcoder.application.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.leetcoder.domain.entity.Question;
+import com.leetcoder.infrastructure.client.LeetCodeClient;
+import com.leetcoder.infrastructure.client.LeetCodeClient.ProblemsetPage;
+import com.leetcoder.infrastructure.client.LeetCodeClient.QuestionDto;
+import com.leetcoder.infrastructure.repository.QuestionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * In-memory view of the questions table. Question metadata is reference data,
+ * so sync reads it from here and only falls back to the DB for cache misses.
+ */
+@Service
+@Slf4j
+public class QuestionCatalogService {
+
+    private final QuestionRepository questionRepository;
+    private final LeetCodeClient leetCodeClient;
+    private final ScheduleChangeService scheduleChanges;
+    private final Cache<String, Question> cache;
+
+    @Value("${app.catalog.warm-up-on-startup:false}")
+    private boolean warmUpOnStartup;
+
+    @Value("${app.catalog.warm-up-page-size:100}")
+    private int warmUpPageSize;
+
+    public QuestionCatalogService(QuestionRepository questionRepository, LeetCodeClient leetCodeClient,
+            ScheduleChangeService scheduleChanges, MeterRegistry meterRegistry,
+            @Value("${app.catalog.max-size:10000}") long maxSize,
+            @Value("${app.catalog.ttl:24h}") Duration ttl) {
+        this.questionRepository = questionRepository;
+        this.leetCodeClient = leetCodeClient;
+        this.scheduleChanges = scheduleChanges;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "questionCatalog");
+    }
+
+    /**
+     * Returns the stored questions for the given slugs. Misses are loaded with a
+     * single IN query and cached; slugs unknown to the DB are absent from the result.
+     */
+    public Map<String, Question> findAll(Collection<String> titleSlugs) {
+        Map<String, Question> found = new HashMap<>(cache.getAllPresent(titleSlugs));
+        if (found.size() == titleSlugs.size()) {
+            return found;
+        }
+
+        Set<String> misses = new HashSet<>(titleSlugs);
+        misses.removeAll(found.keySet());
+        for (Question question : questionRepository.findAllById(misses)) {
+            cache.put(question.getTitleSlug(), question);
+            found.put(question.getTitleSlug(), question);
+        }
+        return found;
+    }
+
+    /**
+     * Adds questions that have just been committed to the DB.
+     */
+    public void putAll(Collection<Question> questions) {
+        for (Question question : questions) {
+            cache.put(question.getTitleSlug(), question);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUpOnStartup() {
+        if (warmUpOnStartup) {
+            Thread.ofVirtual().name("question-catalog-warm-up").start(this::warmUp);
+        }
+    }
+
+    /**
+     * Pages through LeetCode's full problem list, stores questions the DB does
+     * not know yet and loads everything into the cache.
+     *
+     * @return the number of questions now cached
+     */
+    public int warmUp() {
+        log.info("Warming up question catalog...");
+        int pageSize = Math.max(1, warmUpPageSize);
+        int skip = 0;
+        int stored = 0;
+        while (true) {
+            ProblemsetPage page = leetCodeClient.getProblemsetQuestions(skip, pageSize);
+            if (page.questions().isEmpty()) {
+                break;
+            }
+            stored += storePage(page.questions());
+            skip += page.questions().size();
+            if (skip >= page.total()) {
+                break;
+            }
+        }
+        log.info("Question catalog warmed up: {} problems listed, {} stored, {} cached.", skip, stored,
+                cache.estimatedSize());
+        return (int) cache.estimatedSize();
+    }
+
+    private int storePage(List<QuestionDto> page) {
+        Map<String, QuestionDto> listed = new HashMap<>();
+        for (QuestionDto dto : page) {
+            if (dto.titleSlug() != null) {
+                listed.put(dto.titleSlug(), dto);
+            }
+        }
+
+        Map<String, Question> known = new HashMap<>();
+        for (Question question : questionRepository.findAllById(listed.keySet())) {
+            known.put(question.getTitleSlug(), question);
+        }
+
+        List<Question> toStore = new ArrayList<>();
+        List<String> difficultyFixed = new ArrayList<>();
+        for (QuestionDto dto : listed.values()) {
+            Question question = known.get(dto.titleSlug());
+            if (question == null) {
+                toStore.add(Question.builder()
+                        .titleSlug(dto.titleSlug())
+                        .title(dto.title())
+                        .difficulty(dto.difficulty())
+                        .url("https://leetcode.com/problems/" + dto.titleSlug())
+                        .build());
+            } else if ("Unknown".equals(question.getDifficulty())) {
+                // Skeleton created while the details lookup was unavailable
+                question.setTitle(dto.title());
+                question.setDifficulty(dto.difficulty());
+                toStore.add(question);
+                difficultyFixed.add(question.getTitleSlug());
+            }
+        }
+        questionRepository.saveAll(toStore);
+        // Due counters are kept per difficulty
+        scheduleChanges.recountUsersOfQuestions(difficultyFixed);
+
+        putAll(known.values());
+        putAll(toStore);
+        return toStore.size();
+    }
+}
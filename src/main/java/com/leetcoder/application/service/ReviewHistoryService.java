@@ -0,0 +1,165 @@
+package com.leetcoder.application.service;
+
+import com.leetcoder.domain.scheduling.ReviewEvent;
+import com.leetcoder.infrastructure.repository.ReviewEventRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Append-only history of reviews in review_events. Events are written in the
+ * same transaction as the study item change they describe, as one JDBC batch
+ * per transaction. The table is partitioned by month: partitions are created
+ * {@code months-ahead} in advance and whole months older than
+ * {@code retention-months} are dropped, so expiring history never deletes
+ * rows one by one.
+ * <p>
+ * If the schema can't be created (e.g. on a database without declarative
+ * partitioning) history is switched off with a warning instead of failing
+ * reviews.
+ */
+@Service
+@Slf4j
+public class ReviewHistoryService {
+
+    private final ReviewEventRepository reviewEventRepository;
+    private final Clock clock;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final int monthsAhead;
+    private final int retentionMonths;
+    private volatile boolean available;
+
+    public ReviewHistoryService(ReviewEventRepository reviewEventRepository, Clock clock,
+            MeterRegistry meterRegistry,
+            @Value("${app.reviews.history.enabled:true}") boolean enabled,
+            @Value("${app.reviews.history.months-ahead:2}") int monthsAhead,
+            @Value("${app.reviews.history.retention-months:24}") int retentionMonths) {
+        this.reviewEventRepository = reviewEventRepository;
+        this.clock = clock;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.monthsAhead = Math.max(0, monthsAhead);
+        this.retentionMonths = retentionMonths;
+    }
+
+    @PostConstruct
+    void createSchema() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            reviewEventRepository.createTable();
+            available = true;
+        } catch (DataAccessException e) {
+            log.warn("Review history is disabled, cannot create review_events: {}", e.getMessage());
+            return;
+        }
+        maintainPartitions();
+    }
+
+    public boolean isActive() {
+        return available;
+    }
+
+    /**
+     * Appends events in the caller's transaction. No-op when history is off.
+     */
+    public void record(Collection<ReviewEvent> events) {
+        if (!available || events.isEmpty()) {
+            return;
+        }
+        reviewEventRepository.insertAll(events);
+        meterRegistry.counter("reviews.history.events").increment(events.size());
+    }
+
+    /**
+     * Logs a reset of the user's items; call it in the reset's transaction,
+     * before the items are overwritten.
+     */
+    public void recordReset(UUID userId, LocalDateTime appliedAt) {
+        if (available) {
+            meterRegistry.counter("reviews.history.events")
+                    .increment(reviewEventRepository.insertResets(userId, appliedAt));
+        }
+    }
+
+    public void recordResetOfAllUsers(LocalDateTime appliedAt) {
+        if (available) {
+            meterRegistry.counter("reviews.history.events")
+                    .increment(reviewEventRepository.insertResetsForAllUsers(appliedAt));
+        }
+    }
+
+    /**
+     * Logs a shift of every scheduled item by {@code days}; call it in the
+     * shift's transaction, before the items are moved.
+     */
+    public void recordShift(int days, LocalDateTime appliedAt) {
+        if (available) {
+            meterRegistry.counter("reviews.history.events")
+                    .increment(reviewEventRepository.insertShifts(days, appliedAt));
+        }
+    }
+
+    /**
+     * Creates the coming months' partitions and drops expired ones. Safe to run
+     * on several replicas at once; each step is idempotent.
+     */
+    @Scheduled(cron = "${app.reviews.history.maintenance-cron:0 50 0 * * *}")
+    public void maintainPartitions() {
+        if (!available) {
+            return;
+        }
+        YearMonth current = YearMonth.now(clock);
+        for (int i = 0; i <= monthsAhead; i++) {
+            try {
+                reviewEventRepository.createPartition(current.plusMonths(i));
+            } catch (DataAccessException e) {
+                // Also happens when the default partition already holds rows of that month
+                log.warn("Cannot create review history partition for {}: {}", current.plusMonths(i), e.getMessage());
+            }
+        }
+        if (retentionMonths <= 0) {
+            return;
+        }
+
+        YearMonth oldestKept = current.minusMonths(retentionMonths);
+        int dropped = 0;
+        for (String name : reviewEventRepository.findPartitionNames()) {
+            YearMonth month = partitionMonth(name);
+            if (month != null && month.isBefore(oldestKept)) {
+                reviewEventRepository.dropPartition(month);
+                dropped++;
+            }
+        }
+        int deleted = reviewEventRepository.deleteDefaultPartitionBefore(oldestKept.atDay(1).atStartOfDay());
+        if (dropped > 0 || deleted > 0) {
+            log.info("Expired review history before {}: {} partitions dropped, {} stray rows deleted.", oldestKept,
+                    dropped, deleted);
+        }
+    }
+
+    private static YearMonth partitionMonth(String partitionName) {
+        if (!partitionName.startsWith(ReviewEventRepository.PARTITION_PREFIX)) {
+            return null;
+        }
+        String suffix = partitionName.substring(ReviewEventRepository.PARTITION_PREFIX.length());
+        try {
+            return YearMonth.parse(suffix.replace('_', '-'));
+        } catch (DateTimeParseException e) {
+            return null; // the default partition
+        }
+    }
+}
@@ -0,0 +1,338 @@
+package com.leetcoder.application.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.leetcoder.domain.scheduling.ReviewEvent;
+import com.leetcoder.domain.scheduling.Sm2Engine;
+import com.leetcoder.infrastructure.repository.ReviewEventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Rebuilds study item SM-2 state from review history. Each item's events are
+ * re-applied in order with the current {@link Sm2Engine} arithmetic, starting
+ * from the state recorded before its oldest kept event, so the result is right
+ * even after old partitions were dropped. Item ids are split into ranges that
+ * a few workers replay in parallel, one transaction per range.
+ * <p>
+ * Only items whose rebuilt state differs are written, with a check against
+ * the version read before the range's events: an item reviewed while the
+ * replay was running keeps the newer review. Schedule shifts are replayed
+ * from their {@code SHIFT} events. Due counters are recounted afterwards if
+ * anything was rebuilt.
+ * <p>
+ * Replays run one at a time in the background; {@link #submit} returns a job
+ * whose status and report stay queryable for {@code replay-retention}.
+ */
+@Service
+@Slf4j
+public class ReviewReplayService {
+
+    private static final String VERSIONS_SQL = "SELECT id, version FROM study_items WHERE id BETWEEN ? AND ?";
+
+    private static final String READ_SQL = "SELECT id, ease_factor, interval_days, repetitions, next_review_at, "
+            + "last_reviewed_at, version FROM study_items WHERE id BETWEEN ? AND ?";
+
+    private static final String UPDATE_SQL = "UPDATE study_items SET ease_factor = ?, interval_days = ?, "
+            + "repetitions = ?, next_review_at = ?, last_reviewed_at = ?, version = version + 1 "
+            + "WHERE id = ? AND version = ?";
+
+    private final ReviewEventRepository reviewEventRepository;
+    private final ReviewHistoryService reviewHistory;
+    private final ReviewWriteBehindBuffer reviewBuffer;
+    private final ScheduleChangeService scheduleChanges;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int parallelism;
+    private final int rangeSize;
+    private final Cache<UUID, ReplayJob> jobs;
+    private final AtomicReference<ReplayJob> running = new AtomicReference<>();
+
+    public ReviewReplayService(ReviewEventRepository reviewEventRepository, ReviewHistoryService reviewHistory,
+            ReviewWriteBehindBuffer reviewBuffer, ScheduleChangeService scheduleChanges, JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+            @Value("${app.reviews.history.replay-parallelism:2}") int parallelism,
+            @Value("${app.reviews.history.replay-range:5000}") int rangeSize,
+            @Value("${app.reviews.history.replay-retention:1h}") Duration retention) {
+        this.reviewEventRepository = reviewEventRepository;
+        this.reviewHistory = reviewHistory;
+        this.reviewBuffer = reviewBuffer;
+        this.scheduleChanges = scheduleChanges;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.parallelism = Math.max(1, parallelism);
+        this.rangeSize = Math.max(1, rangeSize);
+        this.jobs = Caffeine.newBuilder()
+                .expireAfterWrite(retention)
+                .maximumSize(100)
+                .build();
+    }
+
+    public boolean isAvailable() {
+        return reviewHistory.isActive();
+    }
+
+    /**
+     * Starts a replay of the whole history on a background thread.
+     *
+     * @throws IllegalStateException if history is off or a replay is already running
+     */
+    public ReplayJobView submit(boolean dryRun) {
+        if (!isAvailable()) {
+            throw new IllegalStateException("Review history is not enabled");
+        }
+        ReplayJob job = new ReplayJob(dryRun);
+        if (!running.compareAndSet(null, job)) {
+            throw new IllegalStateException("A review replay is already running");
+        }
+        jobs.put(job.id, job);
+        Thread.ofVirtual().name("review-replay").start(() -> run(job));
+        return job.view();
+    }
+
+    public Optional<ReplayJobView> find(UUID jobId) {
+        return Optional.ofNullable(jobs.getIfPresent(jobId)).map(ReplayJob::view);
+    }
+
+    private void run(ReplayJob job) {
+        try {
+            job.report = replay(job.dryRun);
+            job.status = JobStatus.SUCCEEDED;
+        } catch (RuntimeException e) {
+            log.error("Review replay {} failed", job.id, e);
+            job.error = e.getMessage();
+            job.status = JobStatus.FAILED;
+        } finally {
+            job.finishedAt = Instant.now();
+            // Written again so retention counts from the end of the run
+            jobs.put(job.id, job);
+            running.set(null);
+        }
+    }
+
+    /**
+     * Replays the whole history on the calling thread. With {@code dryRun}
+     * nothing is written and the report says how many items would change.
+     */
+    public ReplayReport replay(boolean dryRun) {
+        if (!isAvailable()) {
+            throw new IllegalStateException("Review history is not enabled");
+        }
+        long start = System.nanoTime();
+        // Pending reviews have their events in the same flush, so history and items line up afterwards
+        reviewBuffer.flush();
+
+        Totals totals = new Totals();
+        long[] idRange = reviewEventRepository.findStudyItemIdRange();
+        if (idRange != null) {
+            AtomicLong nextFrom = new AtomicLong(idRange[0]);
+            long maxId = idRange[1];
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                List<Future<?>> workers = new ArrayList<>();
+                for (int i = 0; i < parallelism; i++) {
+                    workers.add(executor.submit(() -> {
+                        for (long from; (from = nextFrom.getAndAdd(rangeSize)) <= maxId; ) {
+                            replayRange(from, Math.min(from + rangeSize - 1, maxId), dryRun, totals);
+                        }
+                    }));
+                }
+                for (Future<?> worker : workers) {
+                    worker.get();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Review replay interrupted", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Review replay failed", e.getCause());
+            }
+        }
+
+        if (!dryRun && totals.changed.intValue() > 0) {
+            scheduleChanges.recountAll();
+        }
+
+        ReplayReport report = new ReplayReport(dryRun, totals.items.intValue(), totals.events.longValue(),
+                totals.changed.intValue(), totals.conflicts.intValue(), Duration.ofNanos(System.nanoTime() - start));
+        log.info("Review replay{} finished in {} ms: {} events over {} items, {} items {}, {} skipped as "
+                        + "reviewed meanwhile.", dryRun ? " (dry run)" : "", report.duration().toMillis(),
+                report.events(), report.items(), report.changed(), dryRun ? "differ" : "rebuilt", report.conflicts());
+        return report;
+    }
+
+    private void replayRange(long fromId, long toId, boolean dryRun, Totals totals) {
+        // Read before the events: a review committed after this has a newer version, so its item is skipped
+        // below even if its event came too late for the read
+        Map<Long, Long> versions = new HashMap<>();
+        jdbcTemplate.query(VERSIONS_SQL, (RowCallbackHandler) rs -> versions.put(rs.getLong("id"),
+                rs.getLong("version")), fromId, toId);
+        Map<Long, ItemState> rebuilt = new HashMap<>();
+        reviewEventRepository.forEachEvent(fromId, toId, event -> {
+            rebuilt.computeIfAbsent(event.studyItemId(), id -> new ItemState()).apply(event);
+            totals.events.increment();
+        });
+        if (rebuilt.isEmpty()) {
+            return;
+        }
+        totals.items.add(rebuilt.size());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Object[]> updates = new ArrayList<>();
+            jdbcTemplate.query(READ_SQL, (RowCallbackHandler) rs -> {
+                long id = rs.getLong("id");
+                ItemState state = rebuilt.get(id);
+                if (state != null && !state.matches(rs)) {
+                    Long version = versions.get(id);
+                    // An item created after the version read can't be written safely either
+                    updates.add(state.updateRow(id, version == null ? -1 : version));
+                }
+            }, fromId, toId);
+            totals.changed.add(updates.size());
+            if (dryRun || updates.isEmpty()) {
+                return;
+            }
+            for (int count : jdbcTemplate.batchUpdate(UPDATE_SQL, updates)) {
+                if (count == 0) {
+                    totals.conflicts.increment();
+                    totals.changed.decrement();
+                }
+            }
+        });
+    }
+
+    /**
+     * @param changed   items rebuilt, or with {@code dryRun} the items that would be
+     * @param conflicts items left alone because they were reviewed during the replay
+     */
+    public record ReplayReport(boolean dryRun, int items, long events, int changed, int conflicts,
+            Duration duration) {
+    }
+
+    public enum JobStatus {
+        RUNNING, SUCCEEDED, FAILED
+    }
+
+    /**
+     * @param report null until the replay has succeeded
+     * @param error  why the replay failed
+     */
+    public record ReplayJobView(UUID jobId, boolean dryRun, JobStatus status, Instant startedAt,
+            Instant finishedAt, ReplayReport report, String error) {
+    }
+
+    private static final class ReplayJob {
+
+        private final UUID id = UUID.randomUUID();
+        private final boolean dryRun;
+        private final Instant startedAt = Instant.now();
+        private volatile JobStatus status = JobStatus.RUNNING;
+        private volatile Instant finishedAt;
+        private volatile ReplayReport report;
+        private volatile String error;
+
+        private ReplayJob(boolean dryRun) {
+            this.dryRun = dryRun;
+        }
+
+        private ReplayJobView view() {
+            return new ReplayJobView(id, dryRun, status, startedAt, finishedAt, report, error);
+        }
+    }
+
+    private static final class Totals {
+
+        private final LongAdder items = new LongAdder();
+        private final LongAdder events = new LongAdder();
+        private final LongAdder changed = new LongAdder();
+        private final LongAdder conflicts = new LongAdder();
+    }
+
+    private static final class ItemState {
+
+        private boolean started;
+        private double easeFactor = Sm2Engine.DEFAULT_EASE_FACTOR;
+        private int intervalDays;
+        private int repetitions;
+        private LocalDateTime nextReviewAt;
+        private LocalDateTime lastReviewedAt;
+
+        private void apply(ReviewEvent event) {
+            if (event.source() == ReviewEvent.Source.RESET) {
+                started = true;
+                easeFactor = Sm2Engine.DEFAULT_EASE_FACTOR;
+                intervalDays = 0;
+                repetitions = 0;
+                nextReviewAt = null;
+                lastReviewedAt = null;
+                return;
+            }
+            if (event.source() == ReviewEvent.Source.SHIFT) {
+                if (!started) {
+                    easeFactor = event.before().easeFactor();
+                    intervalDays = event.before().intervalDays();
+                    repetitions = event.before().repetitions();
+                    nextReviewAt = event.before().nextReviewAt();
+                    lastReviewedAt = event.reviewedAt();
+                    started = true;
+                }
+                if (nextReviewAt != null) {
+                    nextReviewAt = nextReviewAt.plus(Duration.between(event.before().nextReviewAt(),
+                            event.after().nextReviewAt()));
+                }
+                return;
+            }
+            if (!started && event.before() != null) {
+                easeFactor = event.before().easeFactor();
+                intervalDays = event.before().intervalDays();
+                repetitions = event.before().repetitions();
+            }
+            started = true;
+            int quality = event.quality();
+            easeFactor = Sm2Engine.nextEaseFactor(easeFactor, quality);
+            repetitions = Sm2Engine.nextRepetitions(repetitions, quality);
+            intervalDays = Sm2Engine.nextInterval(intervalDays, repetitions, easeFactor, quality);
+            nextReviewAt = event.appliedAt().plusDays(intervalDays);
+            lastReviewedAt = event.reviewedAt();
+        }
+
+        private boolean matches(ResultSet rs) throws SQLException {
+            return rs.getDouble("ease_factor") == easeFactor
+                    && rs.getInt("interval_days") == intervalDays
+                    && rs.getInt("repetitions") == repetitions
+                    && Objects.equals(rs.getObject("next_review_at", LocalDateTime.class), nextReviewAt)
+                    && Objects.equals(rs.getObject("last_reviewed_at", LocalDateTime.class), lastReviewedAt);
+        }
+
+        private Object[] updateRow(long id, long version) {
+            return new Object[] { easeFactor, intervalDays, repetitions, timestamp(nextReviewAt),
+                    timestamp(lastReviewedAt), id, version };
+        }
+
+        private static Timestamp timestamp(LocalDateTime time) {
+            return time == null ? null : Timestamp.valueOf(time);
+        }
+    }
+}
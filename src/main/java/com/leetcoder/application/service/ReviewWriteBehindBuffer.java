@@ -0,0 +1,471 @@
+package com.leetcoder.application.service;
+
+import com.leetcoder.domain.projection.ReviewState;
+import com.leetcoder.domain.scheduling.ReviewEvent;
+import com.leetcoder.domain.scheduling.Sm2Engine;
+import com.leetcoder.infrastructure.journal.ReviewJournal;
+import com.leetcoder.infrastructure.journal.ReviewJournal.Entry;
+import com.leetcoder.infrastructure.repository.StudyItemRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Optional write-behind mode for reviews ({@code app.reviews.write-behind.enabled}).
+ * A review is applied to an in-memory copy of the item's SM-2 state and
+ * appended to a local {@link ReviewJournal}; once the journal is on disk the
+ * review is acknowledged without touching Postgres. Repeated reviews of the
+ * same item build on the pending state, so only the final state is written.
+ * Pending states are flushed in one batched transaction when
+ * {@code flush-size} items are pending or every {@code flush-interval}.
+ * <p>
+ * Reads from the database see a review only after its flush. Pending states
+ * live in this process only: with several replicas, route a user's reviews to
+ * one instance or leave this mode off.
+ * <p>
+ * Each pending state remembers the item version its first buffered review
+ * was read at, and the flush writes it only if the item still has that
+ * version. An item changed in the database meanwhile, by a sync say, is
+ * re-read under a row lock in the flush transaction and its pending reviews
+ * are applied again on top of the current state. Bulk admin changes run
+ * through {@link #flushAndRun}, which holds reviews back until they are done.
+ * <p>
+ * Schedule change events (review history, due counters) are kept with the
+ * pending states and written in the same flush. The journal only holds
+ * states and their base versions: after a crash, a state is written on startup
+ * only if its item still has that version. Items changed since, because the
+ * state was already flushed or a sync got there first, are skipped and logged.
+ * Events of reviews that were pending during a crash are not recovered; the
+ * due counters of their users are recounted instead.
+ */
+@Service
+@Slf4j
+public class ReviewWriteBehindBuffer {
+
+    private static final String UPDATE_SQL = "UPDATE study_items SET ease_factor = ?, interval_days = ?, "
+            + "repetitions = ?, next_review_at = ?, last_reviewed_at = ?, version = version + 1 WHERE id = ?";
+
+    private static final String UPDATE_IF_VERSION_SQL = UPDATE_SQL + " AND version = ?";
+
+    private static final String LOCK_STATE_SQL = "SELECT ease_factor, interval_days, repetitions, "
+            + "next_review_at, last_reviewed_at, version FROM study_items WHERE id = ? FOR UPDATE";
+
+    private final StudyItemRepository studyItemRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Sm2Engine sm2Engine;
+    private final MeterRegistry meterRegistry;
+    private final ScheduleChangeService scheduleChanges;
+    private final boolean enabled;
+    private final int flushSize;
+    private final Path journalDirectory;
+
+    private final Map<Long, Entry> pending = new ConcurrentHashMap<>();
+    private final Queue<ReviewEvent> pendingEvents = new ConcurrentLinkedQueue<>();
+    // Events of a failed flush, retried ahead of the queue so each item's events stay in order; under flushLock
+    private List<ReviewEvent> unwrittenEvents = List.of();
+    // Reviews share it; bulk admin operations take it exclusively
+    private final ReentrantReadWriteLock bulkLock = new ReentrantReadWriteLock();
+    // Reviews share it; a flush takes it exclusively to rotate the journal and snapshot pending states
+    private final ReentrantReadWriteLock snapshotLock = new ReentrantReadWriteLock();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    // Bumped after each successful flush, before its states leave the pending map
+    private final AtomicLong flushGeneration = new AtomicLong();
+    private ReviewJournal journal;
+
+    public ReviewWriteBehindBuffer(StudyItemRepository studyItemRepository, JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate, Sm2Engine sm2Engine, MeterRegistry meterRegistry,
+            ScheduleChangeService scheduleChanges,
+            @Value("${app.reviews.write-behind.enabled:false}") boolean enabled,
+            @Value("${app.reviews.write-behind.flush-size:500}") int flushSize,
+            @Value("${app.reviews.write-behind.journal-dir:data/review-journal}") Path journalDirectory) {
+        this.studyItemRepository = studyItemRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.sm2Engine = sm2Engine;
+        this.meterRegistry = meterRegistry;
+        this.scheduleChanges = scheduleChanges;
+        this.enabled = enabled;
+        this.flushSize = Math.max(1, flushSize);
+        this.journalDirectory = journalDirectory;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Opens the journal and writes whatever a previous run left in it to the
+     * database before the first review is accepted.
+     */
+    @PostConstruct
+    void recover() {
+        if (!enabled) {
+            return;
+        }
+        journal = new ReviewJournal(journalDirectory);
+        long recovered = journal.rotate();
+        Map<Long, Entry> unflushed = journal.replay();
+        if (!unflushed.isEmpty()) {
+            List<Long> written = writeRecovered(unflushed.values());
+            if (!written.isEmpty()) {
+                // Without their events the counters can't be adjusted by delta
+                scheduleChanges.recountUsersOfItems(written);
+            }
+            log.info("Replayed {} study item states from the review journal.", written.size());
+            if (written.size() < unflushed.size()) {
+                log.warn("Skipped {} journal states whose study items changed since: already flushed, "
+                        + "or updated by a sync or admin change.", unflushed.size() - written.size());
+            }
+        }
+        journal.deleteThrough(recovered);
+        Gauge.builder("reviews.writebehind.pending", pending, Map::size)
+                .description("Study items with reviews not yet flushed to the database")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Applies one review to the item's pending state and makes it durable in
+     * the journal. Quality must already be validated.
+     *
+     * @throws IllegalArgumentException if the item doesn't exist
+     */
+    public void review(long studyItemId, int quality) {
+        long position = 0;
+        bulkLock.readLock().lock();
+        try {
+            while (position == 0) {
+                long generation = flushGeneration.get();
+                Entry fromDatabase = pending.containsKey(studyItemId) ? null : loadState(studyItemId);
+
+                snapshotLock.readLock().lock();
+                try {
+                    long[] appendedAt = new long[1];
+                    // Per-item ordering: the journal append happens inside the map's compute for that item
+                    pending.compute(studyItemId, (id, current) -> {
+                        // A flush dropped the pending state after our check, or wrote one newer than our read
+                        Entry base = current != null ? current
+                                : flushGeneration.get() == generation ? fromDatabase : null;
+                        if (base == null) {
+                            return null;
+                        }
+                        Entry reviewed = apply(base, quality, sm2Engine.now());
+                        appendedAt[0] = journal.append(reviewed);
+                        pendingEvents.add(event(base, reviewed, quality));
+                        return reviewed;
+                    });
+                    position = appendedAt[0];
+                } finally {
+                    snapshotLock.readLock().unlock();
+                }
+            }
+        } finally {
+            bulkLock.readLock().unlock();
+        }
+        journal.sync(position);
+
+        if (pending.size() >= flushSize && flushRequested.compareAndSet(false, true)) {
+            Thread.ofVirtual().name("review-write-behind-flush").start(this::flush);
+        }
+    }
+
+    private Entry loadState(long studyItemId) {
+        ReviewState state = studyItemRepository.findReviewState(studyItemId)
+                .orElseThrow(() -> new IllegalArgumentException("StudyItem not found with ID: " + studyItemId));
+        return new Entry(studyItemId, state.version(), state.easeFactor(), state.intervalDays(),
+                state.repetitions(), state.nextReviewAt(), null);
+    }
+
+    private static Entry apply(Entry state, int quality, LocalDateTime reviewedAt) {
+        return apply(state, quality, reviewedAt, reviewedAt);
+    }
+
+    /**
+     * @param appliedAt when the review takes effect; the next review is scheduled from it
+     */
+    private static Entry apply(Entry state, int quality, LocalDateTime reviewedAt, LocalDateTime appliedAt) {
+        double easeFactor = Sm2Engine.nextEaseFactor(state.easeFactor(), quality);
+        int repetitions = Sm2Engine.nextRepetitions(state.repetitions(), quality);
+        int interval = Sm2Engine.nextInterval(state.intervalDays(), repetitions, easeFactor, quality);
+        return new Entry(state.studyItemId(), state.baseVersion(), easeFactor, interval, repetitions,
+                appliedAt.plusDays(interval), reviewedAt);
+    }
+
+    private static ReviewEvent event(Entry before, Entry after, int quality) {
+        return event(before, after, quality, after.lastReviewedAt());
+    }
+
+    private static ReviewEvent event(Entry before, Entry after, int quality, LocalDateTime appliedAt) {
+        return new ReviewEvent(after.studyItemId(), ReviewEvent.Source.MANUAL, quality, after.lastReviewedAt(),
+                appliedAt,
+                new ReviewEvent.State(before.easeFactor(), before.intervalDays(), before.repetitions(),
+                        before.nextReviewAt()),
+                new ReviewEvent.State(after.easeFactor(), after.intervalDays(), after.repetitions(),
+                        after.nextReviewAt()));
+    }
+
+    @Scheduled(fixedDelayString = "${app.reviews.write-behind.flush-interval:PT1S}")
+    public void scheduledFlush() {
+        if (enabled) {
+            flush();
+        }
+    }
+
+    /**
+     * Writes all pending states in one batched transaction, then drops the
+     * journal segments they came from. States reviewed again meanwhile stay
+     * pending for the next flush. A failed flush is logged and retried later.
+     * No-op when write-behind is off.
+     *
+     * @return the number of study items written
+     */
+    public int flush() {
+        if (!enabled) {
+            return 0;
+        }
+        try {
+            return flushPending();
+        } catch (RuntimeException e) {
+            log.error("Flushing {} pending reviews failed; they stay in the journal and will be retried",
+                    pending.size(), e);
+            return 0;
+        }
+    }
+
+    /**
+     * Flushes everything pending and runs {@code operation} while reviews wait,
+     * so a bulk change of study items (a reset, a schedule shift) can't be
+     * overwritten by states buffered before it or based on a read from before
+     * it. If the flush fails its exception is thrown and the operation doesn't
+     * run. Without write-behind the operation just runs.
+     */
+    public <T> T flushAndRun(Supplier<T> operation) {
+        if (!enabled) {
+            return operation.get();
+        }
+        bulkLock.writeLock().lock();
+        try {
+            flushPending();
+            return operation.get();
+        } finally {
+            bulkLock.writeLock().unlock();
+        }
+    }
+
+    private int flushPending() {
+        flushLock.lock();
+        try {
+            flushRequested.set(false);
+            Map<Long, Entry> snapshot;
+            List<ReviewEvent> events = new ArrayList<>(unwrittenEvents);
+            long closedSegment;
+            snapshotLock.writeLock().lock();
+            try {
+                if (pending.isEmpty()) {
+                    return 0;
+                }
+                closedSegment = journal.rotate();
+                snapshot = new HashMap<>(pending);
+                for (ReviewEvent event; (event = pendingEvents.poll()) != null; ) {
+                    events.add(event);
+                }
+            } finally {
+                snapshotLock.writeLock().unlock();
+            }
+
+            Timer.Sample sample = Timer.start(meterRegistry);
+            String outcome = "failure";
+            Set<Long> rebased;
+            try {
+                rebased = write(snapshot, events);
+                unwrittenEvents = List.of();
+                outcome = "success";
+            } catch (RuntimeException e) {
+                unwrittenEvents = events;
+                throw e;
+            } finally {
+                sample.stop(Timer.builder("reviews.writebehind.flush")
+                        .description("Batched write of pending review states")
+                        .tag("outcome", outcome)
+                        .register(meterRegistry));
+            }
+            flushGeneration.incrementAndGet();
+            long[] carriedAt = new long[1];
+            snapshot.forEach((id, flushed) -> pending.computeIfPresent(id, (key, current) -> {
+                if (current == flushed) {
+                    return null;
+                }
+                // Reviewed again since the snapshot, on top of the flushed state: it now has the next version,
+                // journaled again so a recovery doesn't take it for a state some other change overtook.
+                // A rebased item was written from another state, so the old version makes the next flush
+                // rebase the later reviews too.
+                if (rebased.contains(id)) {
+                    return current;
+                }
+                Entry carried = current.withBaseVersion(flushed.baseVersion() + 1);
+                carriedAt[0] = journal.append(carried);
+                return carried;
+            }));
+            journal.sync(carriedAt[0]);
+            // Everything in the closed segments is now in the database or superseded by a later record
+            journal.deleteThrough(closedSegment);
+            return snapshot.size();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Writes the pending states with a version check, rebasing those that lost
+     * it, and records their events in the same transaction.
+     *
+     * @return the items that were rebased
+     */
+    private Set<Long> write(Map<Long, Entry> snapshot, List<ReviewEvent> events) {
+        List<Long> ids = new ArrayList<>(snapshot.size());
+        List<Object[]> rows = new ArrayList<>(snapshot.size());
+        snapshot.forEach((id, entry) -> {
+            ids.add(id);
+            rows.add(updateIfVersionRow(entry));
+        });
+        return transactionTemplate.execute(status -> {
+            int[] updated = jdbcTemplate.batchUpdate(UPDATE_IF_VERSION_SQL, rows);
+            Set<Long> conflicts = new HashSet<>();
+            for (int i = 0; i < updated.length; i++) {
+                if (updated[i] == 0) {
+                    conflicts.add(ids.get(i));
+                }
+            }
+            scheduleChanges.record(conflicts.isEmpty() ? events : rebase(conflicts, events));
+            return conflicts;
+        });
+    }
+
+    /**
+     * Applies the pending reviews of items changed in the database since they
+     * were read again, in order, on top of the current state. They keep their
+     * review times but take effect now: the change they are applied after is
+     * newer than they are, and replaying history orders events by the time
+     * they took effect. The rows stay locked until the flush commits, so
+     * nothing can change them between this read and the write. Reviews of
+     * items deleted meanwhile are dropped.
+     *
+     * @return the events with those of the rebased items replaced
+     */
+    private List<ReviewEvent> rebase(Set<Long> conflicts, List<ReviewEvent> events) {
+        Map<Long, Entry> states = new HashMap<>();
+        for (long id : conflicts) {
+            List<Entry> locked = jdbcTemplate.query(LOCK_STATE_SQL, (rs, rowNum) -> new Entry(id,
+                    rs.getLong("version"), rs.getDouble("ease_factor"), rs.getInt("interval_days"), rs.getInt("repetitions"),
+                    localDateTime(rs.getTimestamp("next_review_at")),
+                    localDateTime(rs.getTimestamp("last_reviewed_at"))), id);
+            if (!locked.isEmpty()) {
+                states.put(id, locked.get(0));
+            }
+        }
+        LocalDateTime appliedAt = sm2Engine.now();
+        List<ReviewEvent> rebasedEvents = new ArrayList<>(events.size());
+        for (ReviewEvent event : events) {
+            if (!conflicts.contains(event.studyItemId())) {
+                rebasedEvents.add(event);
+                continue;
+            }
+            Entry before = states.get(event.studyItemId());
+            if (before != null) {
+                Entry after = apply(before, event.quality(), event.reviewedAt(), appliedAt);
+                states.put(event.studyItemId(), after);
+                rebasedEvents.add(event(before, after, event.quality(), appliedAt));
+            }
+        }
+        List<Object[]> rows = new ArrayList<>(states.size());
+        for (Entry state : states.values()) {
+            rows.add(updateRow(state));
+        }
+        jdbcTemplate.batchUpdate(UPDATE_SQL, rows);
+        log.info("Rebased pending reviews of {} study items changed since they were read.", states.size());
+        return rebasedEvents;
+    }
+
+    /**
+     * Writes recovered journal states whose items still have the version they
+     * were computed from. There are no events to apply again on top of a newer
+     * state, so the others are left alone.
+     *
+     * @return the items that were written
+     */
+    private List<Long> writeRecovered(Collection<Entry> entries) {
+        List<Entry> states = new ArrayList<>(entries);
+        List<Object[]> rows = new ArrayList<>(states.size());
+        for (Entry state : states) {
+            rows.add(updateIfVersionRow(state));
+        }
+        int[] updated = transactionTemplate.execute(status ->
+                jdbcTemplate.batchUpdate(UPDATE_IF_VERSION_SQL, rows));
+        List<Long> written = new ArrayList<>(states.size());
+        for (int i = 0; i < updated.length; i++) {
+            Entry state = states.get(i);
+            if (updated[i] == 0) {
+                log.debug("Not recovering the journal state of study item {}: changed since version {}",
+                        state.studyItemId(), state.baseVersion());
+            } else {
+                written.add(state.studyItemId());
+            }
+        }
+        return written;
+    }
+
+    private static Object[] updateRow(Entry entry) {
+        return new Object[] { entry.easeFactor(), entry.intervalDays(), entry.repetitions(),
+                timestamp(entry.nextReviewAt()), timestamp(entry.lastReviewedAt()), entry.studyItemId() };
+    }
+
+    private static Object[] updateIfVersionRow(Entry entry) {
+        return new Object[] { entry.easeFactor(), entry.intervalDays(), entry.repetitions(),
+                timestamp(entry.nextReviewAt()), timestamp(entry.lastReviewedAt()), entry.studyItemId(),
+                entry.baseVersion() };
+    }
+
+    private static Timestamp timestamp(LocalDateTime time) {
+        return time == null ? null : Timestamp.valueOf(time);
+    }
+
+    private static LocalDateTime localDateTime(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toLocalDateTime();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (enabled) {
+            flush();
+            journal.close();
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.leetcoder.application.service;
+
+import com.leetcoder.domain.scheduling.ReviewEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * The one place study item schedule changes are reported to, so everything
+ * derived from them (review history, per-user due counters) stays in step
+ * with study_items. Call it in the transaction that writes the items.
+ * <p>
+ * Every change is also published as an {@link ItemsChanged} event naming the
+ * users affected; the due counters' upserts return them, so this costs no
+ * extra query. Listeners that cache per-user results should use
+ * {@code @TransactionalEventListener} to see the change only once committed.
+ */
+@Service
+@RequiredArgsConstructor
+public class ScheduleChangeService {
+
+    private final ReviewHistoryService reviewHistory;
+    private final DueCounterService dueCounters;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Reviews and synced solves, one event per item change.
+     */
+    public void record(Collection<ReviewEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        reviewHistory.record(events);
+        publish(dueCounters.apply(events));
+    }
+
+    /**
+     * Call before the user's items are reset, in the same transaction, and
+     * {@link #recountUsers} after.
+     */
+    public void recordReset(UUID userId, LocalDateTime appliedAt) {
+        reviewHistory.recordReset(userId, appliedAt);
+    }
+
+    public void recordResetOfAllUsers(LocalDateTime appliedAt) {
+        reviewHistory.recordResetOfAllUsers(appliedAt);
+    }
+
+    /**
+     * Call before every scheduled item is shifted, in the same transaction,
+     * and {@link #recountAll} after.
+     */
+    public void recordShift(int days, LocalDateTime appliedAt) {
+        reviewHistory.recordShift(days, appliedAt);
+    }
+
+    /**
+     * For bulk writes that don't produce events: rebuilds the derived state
+     * of the users from their items.
+     */
+    public void recountUsers(Collection<UUID> userIds) {
+        dueCounters.recountUsers(userIds);
+        publish(userIds);
+    }
+
+    public void recountUser(UUID userId) {
+        recountUsers(List.of(userId));
+    }
+
+    public void recountUsersOfItems(Collection<Long> studyItemIds) {
+        publish(dueCounters.recountUsersOfItems(studyItemIds));
+    }
+
+    public void recountUsersOfQuestions(Collection<String> titleSlugs) {
+        publish(dueCounters.recountUsersOfQuestions(titleSlugs));
+    }
+
+    public void recountAll() {
+        dueCounters.recountAll();
+        publish(null);
+    }
+
+    // Without the due counters the affected users aren't known, so everyone is
+    private void publish(Collection<UUID> userIds) {
+        if (userIds == null || !userIds.isEmpty()) {
+            eventPublisher.publishEvent(new ItemsChanged(userIds == null ? null : Set.copyOf(userIds)));
+        }
+    }
+
+    /**
+     * Study items of these users were written.
+     *
+     * @param userIds null if any user's items may have changed
+     */
+    public record ItemsChanged(Set<UUID> userIds) {
+
+        public boolean affects(UUID userId) {
+            return userIds == null || userIds.contains(userId);
+        }
+    }
+}
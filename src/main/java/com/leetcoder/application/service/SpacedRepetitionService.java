@@ -1,21 +1,71 @@
 package com.leetcoder.application.service;
 
 import com.leetcoder.domain.entity.StudyItem;
+import com.leetcoder.domain.projection.ReviewState;
+import com.leetcoder.domain.scheduling.ReviewEvent;
+import com.leetcoder.domain.scheduling.ReviewEvent.Source;
+import com.leetcoder.domain.scheduling.Sm2Engine;
 import com.leetcoder.infrastructure.repository.StudyItemRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 public class SpacedRepetitionService {
 
     private final StudyItemRepository studyItemRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Sm2Engine sm2Engine;
+    private final MeterRegistry meterRegistry;
+    private final ReviewWriteBehindBuffer writeBehind;
+    private final ScheduleChangeService scheduleChanges;
 
-    @Transactional
+    // entity: versioned read-modify-write; conditional: one UPDATE ... WHERE id = ? AND version = ?
+    @Value("${app.reviews.update-mode:entity}")
+    private String updateMode;
+
+    @Value("${app.reviews.max-attempts:3}")
+    private int maxAttempts;
+
+    /**
+     * Applies one review. A lost race on the item's version is retried with a
+     * fresh read up to {@code app.reviews.max-attempts} times before the
+     * {@link org.springframework.dao.OptimisticLockingFailureException} escapes.
+     */
     public void processReview(Long studyItemId, int quality) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            applySingleReview(studyItemId, quality);
+            outcome = "success";
+            countItems(ReviewStatus.PROCESSED, 1);
+        } catch (IllegalArgumentException e) {
+            outcome = "invalid";
+            throw e;
+        } catch (OptimisticLockingFailureException e) {
+            outcome = "conflict";
+            throw e;
+        } finally {
+            sample.stop(requestTimer("single", outcome));
+        }
+    }
+
+    private void applySingleReview(Long studyItemId, int quality) {
         if (studyItemId == null) {
             throw new IllegalArgumentException("StudyItemId cannot be null");
         }
@@ -23,9 +73,147 @@ public class SpacedRepetitionService {
             throw new IllegalArgumentException("Quality must be between 0 and 5");
         }
 
-        StudyItem item = studyItemRepository.findById(studyItemId)
+        if (writeBehind.isEnabled()) {
+            writeBehind.review(studyItemId, quality);
+        } else if ("conditional".equalsIgnoreCase(updateMode)) {
+            ConflictRetry.run(maxAttempts,
+                    () -> transactionTemplate.execute(status -> applyConditionalReview(studyItemId, quality)));
+        } else {
+            ConflictRetry.run(maxAttempts, () -> transactionTemplate.execute(status -> {
+                StudyItem item = studyItemRepository.findById(studyItemId)
+                        .orElseThrow(() -> new IllegalArgumentException("StudyItem not found with ID: " + studyItemId));
+                scheduleChanges.record(List.of(applyReview(item, quality)));
+                return studyItemRepository.save(item);
+            }));
+        }
+    }
+
+    /**
+     * Reads the current state as a projection and writes the SM-2 result back
+     * only if nobody changed the item in between. No entity is managed and no
+     * lock is held between the read and the write.
+     */
+    private int applyConditionalReview(Long studyItemId, int quality) {
+        ReviewState state = studyItemRepository.findReviewState(studyItemId)
                 .orElseThrow(() -> new IllegalArgumentException("StudyItem not found with ID: " + studyItemId));
+        ReviewResult result = calculateNextReview(state.easeFactor(), state.intervalDays(), state.repetitions(),
+                quality);
+
+        int updated = studyItemRepository.applyReviewIfVersion(studyItemId, state.version(), result.easeFactor,
+                result.intervalDays, result.repetitions, result.nextReviewAt, result.appliedAt);
+        if (updated == 0) {
+            throw new ObjectOptimisticLockingFailureException(StudyItem.class, studyItemId);
+        }
+        ReviewEvent.State before = new ReviewEvent.State(state.easeFactor(), state.intervalDays(), state.repetitions(),
+                state.nextReviewAt());
+        scheduleChanges.record(List.of(result.toEvent(studyItemId, Source.MANUAL, quality, result.appliedAt, before)));
+        return updated;
+    }
+
+    /**
+     * Applies a whole review session in one transaction: all items are loaded
+     * with a single IN query and the updates are flushed together as a JDBC
+     * batch. Reviews are applied in order, so reviewing an item twice works.
+     * Invalid or unknown entries are reported per item and don't fail the batch.
+     * If any item was changed concurrently the whole session is re-read and retried.
+     * In write-behind mode each review goes to {@link ReviewWriteBehindBuffer} instead.
+     */
+    public List<ReviewOutcome> processReviews(List<Review> reviews) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            List<ReviewOutcome> outcomes = writeBehind.isEnabled()
+                    ? bufferReviews(reviews)
+                    : ConflictRetry.run(maxAttempts,
+                            () -> transactionTemplate.execute(status -> applyReviews(reviews)));
+            outcome = "success";
+            Map<ReviewStatus, Integer> counts = new EnumMap<>(ReviewStatus.class);
+            for (ReviewOutcome reviewOutcome : outcomes) {
+                counts.merge(reviewOutcome.status(), 1, Integer::sum);
+            }
+            counts.forEach(this::countItems);
+            return outcomes;
+        } catch (OptimisticLockingFailureException e) {
+            outcome = "conflict";
+            throw e;
+        } finally {
+            sample.stop(requestTimer("batch", outcome));
+        }
+    }
+
+    private Timer requestTimer(String type, String outcome) {
+        return Timer.builder("reviews.requests")
+                .description("Review requests, single or batch")
+                .tags("type", type, "outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private void countItems(ReviewStatus status, int count) {
+        meterRegistry.counter("reviews.items", "status", status.name().toLowerCase()).increment(count);
+    }
+
+    private List<ReviewOutcome> applyReviews(List<Review> reviews) {
+        Set<Long> ids = new HashSet<>();
+        for (Review review : reviews) {
+            if (review.studyItemId() != null) {
+                ids.add(review.studyItemId());
+            }
+        }
+        Map<Long, StudyItem> items = new HashMap<>();
+        for (StudyItem item : studyItemRepository.findAllById(ids)) {
+            items.put(item.getId(), item);
+        }
 
+        List<ReviewOutcome> outcomes = new ArrayList<>(reviews.size());
+        List<ReviewEvent> events = new ArrayList<>(reviews.size());
+        for (Review review : reviews) {
+            ReviewOutcome invalid = validate(review);
+            if (invalid != null) {
+                outcomes.add(invalid);
+            } else if (!items.containsKey(review.studyItemId())) {
+                outcomes.add(new ReviewOutcome(review.studyItemId(), ReviewStatus.NOT_FOUND,
+                        "StudyItem not found with ID: " + review.studyItemId()));
+            } else {
+                events.add(applyReview(items.get(review.studyItemId()), review.quality()));
+                outcomes.add(new ReviewOutcome(review.studyItemId(), ReviewStatus.PROCESSED, null));
+            }
+        }
+        scheduleChanges.record(events);
+        // Dirty items are flushed as one batch on commit
+        return outcomes;
+    }
+
+    private List<ReviewOutcome> bufferReviews(List<Review> reviews) {
+        List<ReviewOutcome> outcomes = new ArrayList<>(reviews.size());
+        for (Review review : reviews) {
+            ReviewOutcome invalid = validate(review);
+            if (invalid != null) {
+                outcomes.add(invalid);
+                continue;
+            }
+            try {
+                writeBehind.review(review.studyItemId(), review.quality());
+                outcomes.add(new ReviewOutcome(review.studyItemId(), ReviewStatus.PROCESSED, null));
+            } catch (IllegalArgumentException e) {
+                outcomes.add(new ReviewOutcome(review.studyItemId(), ReviewStatus.NOT_FOUND, e.getMessage()));
+            }
+        }
+        return outcomes;
+    }
+
+    private static ReviewOutcome validate(Review review) {
+        if (review.studyItemId() == null) {
+            return new ReviewOutcome(null, ReviewStatus.INVALID, "StudyItemId cannot be null");
+        }
+        if (review.quality() < 0 || review.quality() > 5) {
+            return new ReviewOutcome(review.studyItemId(), ReviewStatus.INVALID, "Quality must be between 0 and 5");
+        }
+        return null;
+    }
+
+    private ReviewEvent applyReview(StudyItem item, int quality) {
+        ReviewEvent.State before = new ReviewEvent.State(item.getEaseFactor(), item.getIntervalDays(),
+                item.getRepetitions(), item.getNextReviewAt());
         ReviewResult result = calculateNextReview(
                 item.getEaseFactor(),
                 item.getIntervalDays(),
@@ -36,9 +224,18 @@ public class SpacedRepetitionService {
         item.setIntervalDays(result.intervalDays);
         item.setRepetitions(result.repetitions);
         item.setNextReviewAt(result.nextReviewAt);
-        item.setLastReviewedAt(LocalDateTime.now());
+        item.setLastReviewedAt(result.appliedAt);
+        return result.toEvent(item.getId(), Source.MANUAL, quality, result.appliedAt, before);
+    }
+
+    public record Review(Long studyItemId, int quality) {
+    }
 
-        studyItemRepository.save(item);
+    public enum ReviewStatus {
+        PROCESSED, INVALID, NOT_FOUND
+    }
+
+    public record ReviewOutcome(Long studyItemId, ReviewStatus status, String message) {
     }
 
     public static class ReviewResult {
@@ -46,48 +243,52 @@ public class SpacedRepetitionService {
         public int intervalDays;
         public int repetitions;
         public LocalDateTime nextReviewAt;
+        // The moment the schedule was computed from
+        public LocalDateTime appliedAt;
 
-        public ReviewResult(double easeFactor, int intervalDays, int repetitions, LocalDateTime nextReviewAt) {
+        public ReviewResult(double easeFactor, int intervalDays, int repetitions, LocalDateTime nextReviewAt,
+                LocalDateTime appliedAt) {
             this.easeFactor = easeFactor;
             this.intervalDays = intervalDays;
             this.repetitions = repetitions;
             this.nextReviewAt = nextReviewAt;
+            this.appliedAt = appliedAt;
+        }
+
+        /**
+         * @param before the state the review was applied to, null for a new item
+         */
+        public ReviewEvent toEvent(long studyItemId, Source source, int quality, LocalDateTime reviewedAt,
+                ReviewEvent.State before) {
+            return new ReviewEvent(studyItemId, source, quality, reviewedAt, appliedAt, before,
+                    new ReviewEvent.State(easeFactor, intervalDays, repetitions, nextReviewAt));
         }
     }
 
     /**
      * Calculates the next review schedule using the SuperMemo-2 (SM-2) algorithm.
+     * The arithmetic lives in {@link Sm2Engine}; this wraps it for callers that
+     * work with entities and timestamps.
      */
     public ReviewResult calculateNextReview(double currentEaseFactor, int currentInterval, int currentRepetitions,
             int quality) {
-        double newEaseFactor = currentEaseFactor;
-        int newInterval = currentInterval;
-        int newRepetitions = currentRepetitions;
-
-        if (quality < 3) {
-            newRepetitions = 0;
-            newInterval = 1;
-        } else {
-            // Update Ease Factor
-            // EF' = EF + (0.1 - (5 - q) * (0.08 + (5 - q) * 0.02))
-            newEaseFactor = currentEaseFactor + (0.1 - (5 - quality) * (0.08 + (5 - quality) * 0.02));
-            if (newEaseFactor < 1.3) {
-                newEaseFactor = 1.3;
-            }
-
-            newRepetitions++;
+        double newEaseFactor = Sm2Engine.nextEaseFactor(currentEaseFactor, quality);
+        int newRepetitions = Sm2Engine.nextRepetitions(currentRepetitions, quality);
+        int newInterval = Sm2Engine.nextInterval(currentInterval, newRepetitions, newEaseFactor, quality);
 
-            if (newRepetitions == 1) {
-                newInterval = 1;
-            } else if (newRepetitions == 2) {
-                newInterval = 6;
-            } else {
-                newInterval = (int) Math.round(newInterval * newEaseFactor);
-            }
-        }
-
-        LocalDateTime nextReviewDate = LocalDateTime.now().plusDays(newInterval);
+        LocalDateTime now = sm2Engine.now();
+        return new ReviewResult(newEaseFactor, newInterval, newRepetitions, now.plusDays(newInterval), now);
+    }
 
-        return new ReviewResult(newEaseFactor, newInterval, newRepetitions, nextReviewDate);
+    /**
+     * Bulk variant for replays and simulations: applies one review per item to
+     * parallel primitive arrays in place, without allocating per item.
+     *
+     * @see Sm2Engine#reschedule(double[], int[], int[], long[], int[], long, int, int)
+     */
+    public void rescheduleAll(double[] easeFactors, int[] intervals, int[] repetitions, long[] nextReviewEpochDay,
+            int[] qualities, long reviewEpochDay) {
+        Sm2Engine.reschedule(easeFactors, intervals, repetitions, nextReviewEpochDay, qualities, reviewEpochDay, 0,
+                easeFactors.length);
     }
 }
@@ -0,0 +1,169 @@
+package com.leetcoder.application.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.leetcoder.domain.entity.User;
+import com.leetcoder.infrastructure.repository.UserRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs on-demand user syncs off the request thread. Requests go into a bounded
+ * in-process queue drained by a few worker threads; a request for a user whose
+ * sync is still queued joins that job instead of queueing another one. Finished
+ * jobs stay queryable for {@code app.sync.jobs.retention}. A job that starts
+ * while a scheduled or queued sync of the same user is running is skipped and
+ * says so in its outcome.
+ */
+@Service
+@Slf4j
+public class SyncJobService {
+
+    private final LeetCodeSyncService syncService;
+    private final UserRepository userRepository;
+    private final BlockingQueue<SyncJob> queue;
+    // Queued or running job per user; a running job is replaced once a new request comes in
+    private final Map<UUID, SyncJob> activeByUser = new ConcurrentHashMap<>();
+    private final Map<UUID, SyncJob> activeById = new ConcurrentHashMap<>();
+    private final Cache<UUID, SyncJob> finished;
+    private final List<Thread> workers = new ArrayList<>();
+
+    public SyncJobService(LeetCodeSyncService syncService, UserRepository userRepository,
+            MeterRegistry meterRegistry,
+            @Value("${app.sync.jobs.workers:2}") int workerCount,
+            @Value("${app.sync.jobs.queue-capacity:1000}") int queueCapacity,
+            @Value("${app.sync.jobs.retention:1h}") Duration retention) {
+        this.syncService = syncService;
+        this.userRepository = userRepository;
+        this.queue = new LinkedBlockingQueue<>(Math.max(1, queueCapacity));
+        this.finished = Caffeine.newBuilder()
+                .expireAfterWrite(retention)
+                .maximumSize(10_000)
+                .build();
+        Gauge.builder("sync.jobs.queued", queue, BlockingQueue::size)
+                .description("On-demand sync jobs waiting for a worker")
+                .register(meterRegistry);
+        for (int i = 0; i < Math.max(1, workerCount); i++) {
+            workers.add(Thread.ofVirtual().name("sync-job-worker-" + i).start(this::work));
+        }
+    }
+
+    /**
+     * Queues a sync for the user, or joins the job already queued for them.
+     *
+     * @throws IllegalStateException if the queue is full
+     */
+    public SyncJobView submit(UUID userId) {
+        SyncJob job = activeByUser.compute(userId, (id, existing) -> {
+            if (existing != null && existing.status == JobStatus.QUEUED) {
+                existing.requests.incrementAndGet();
+                return existing;
+            }
+            SyncJob created = new SyncJob(id);
+            if (!queue.offer(created)) {
+                throw new IllegalStateException("Sync queue is full, try again later");
+            }
+            activeById.put(created.id, created);
+            return created;
+        });
+        return job.view();
+    }
+
+    public Optional<SyncJobView> find(UUID jobId) {
+        SyncJob job = activeById.get(jobId);
+        if (job == null) {
+            job = finished.getIfPresent(jobId);
+        }
+        return Optional.ofNullable(job).map(SyncJob::view);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.forEach(Thread::interrupt);
+    }
+
+    private void work() {
+        try {
+            while (true) {
+                run(queue.take());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run(SyncJob job) {
+        // Under the user's map entry so a concurrent submit either joins before the start or queues anew
+        activeByUser.compute(job.userId, (id, current) -> {
+            job.startedAt = Instant.now();
+            job.status = JobStatus.RUNNING;
+            return current;
+        });
+        try {
+            User user = userRepository.findById(job.userId)
+                    .orElseThrow(() -> new IllegalArgumentException("User not found"));
+            OptionalInt changed = syncService.trySyncUser(user);
+            job.outcome = changed.isPresent()
+                    ? changed.getAsInt() + " study items created or updated"
+                    : "skipped, a sync for this user was already running";
+            job.status = JobStatus.SUCCEEDED;
+        } catch (Exception e) {
+            log.error("Sync job {} for user {} failed", job.id, job.userId, e);
+            job.outcome = e.getMessage();
+            job.status = JobStatus.FAILED;
+        } finally {
+            job.finishedAt = Instant.now();
+            finished.put(job.id, job);
+            activeById.remove(job.id);
+            activeByUser.remove(job.userId, job);
+        }
+    }
+
+    public enum JobStatus {
+        QUEUED, RUNNING, SUCCEEDED, FAILED
+    }
+
+    /**
+     * @param requests how many sync requests this job is serving
+     */
+    public record SyncJobView(UUID jobId, UUID userId, JobStatus status, int requests, Instant queuedAt,
+            Instant startedAt, Instant finishedAt, String outcome) {
+    }
+
+    private static final class SyncJob {
+
+        private final UUID id = UUID.randomUUID();
+        private final UUID userId;
+        private final Instant queuedAt = Instant.now();
+        private final AtomicInteger requests = new AtomicInteger(1);
+        private volatile JobStatus status = JobStatus.QUEUED;
+        private volatile Instant startedAt;
+        private volatile Instant finishedAt;
+        private volatile String outcome;
+
+        private SyncJob(UUID userId) {
+            this.userId = userId;
+        }
+
+        private SyncJobView view() {
+            return new SyncJobView(id, userId, status, requests.get(), queuedAt, startedAt, finishedAt, outcome);
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package com.leetcoder.application.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.leetcoder.application.service.ScheduleChangeService.ItemsChanged;
+import com.leetcoder.domain.scheduling.Sm2Engine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Projects how many reviews a user will have on each of the next
+ * {@code app.forecast.days} days. The user's scheduled items are read once
+ * into parallel primitive arrays and every item is walked forward with
+ * {@link Sm2Engine#projectLoad}, assuming each review happens on its due day
+ * with the user's expected quality: the mean quality of their recent reviews
+ * from the per-day review activity, or {@code default-quality} without any. Item ranges are
+ * simulated in parallel on a dedicated fork-join pool and their daily counts
+ * summed.
+ * <p>
+ * Results are cached per user until the user's study items change, as
+ * reported by {@link ScheduleChangeService}, or the day rolls over. Reviews
+ * still pending in write-behind mode are not part of the forecast until they
+ * are flushed.
+ */
+@Service
+public class WorkloadForecastService {
+
+    private static final String ITEMS_SQL = "SELECT ease_factor, interval_days, repetitions, "
+            + "CAST(next_review_at AS date) - DATE '1970-01-01' AS due_epoch_day FROM study_items "
+            + "WHERE user_id = ? AND next_review_at IS NOT NULL";
+
+    // Below this many items a range is simulated by one task
+    private static final int MIN_ITEMS_PER_TASK = 1024;
+
+    private static final int CHANGE_STRIPES = 256;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DueCounterService dueCounters;
+    private final Sm2Engine sm2Engine;
+    private final MeterRegistry meterRegistry;
+    private final int days;
+    private final int defaultQuality;
+    private final int qualityLookbackDays;
+    private final ForkJoinPool pool;
+    private final Cache<UUID, Forecast> cache;
+    // Change counts per stripe of users, so a forecast computed across a change of its user isn't cached
+    private final AtomicLongArray changes = new AtomicLongArray(CHANGE_STRIPES);
+
+    public WorkloadForecastService(JdbcTemplate jdbcTemplate, DueCounterService dueCounters, Sm2Engine sm2Engine,
+            MeterRegistry meterRegistry,
+            @Value("${app.forecast.days:90}") int days,
+            @Value("${app.forecast.default-quality:4}") int defaultQuality,
+            @Value("${app.forecast.quality-lookback-days:90}") int qualityLookbackDays,
+            @Value("${app.forecast.parallelism:0}") int parallelism,
+            @Value("${app.forecast.cache-size:10000}") long cacheSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dueCounters = dueCounters;
+        this.sm2Engine = sm2Engine;
+        this.meterRegistry = meterRegistry;
+        this.days = Math.max(1, days);
+        this.defaultQuality = Math.clamp(defaultQuality, 0, 5);
+        this.qualityLookbackDays = Math.max(1, qualityLookbackDays);
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "workloadForecast");
+    }
+
+    /**
+     * The user's projected daily review load, from the cache if nothing
+     * changed since it was computed today.
+     */
+    public Forecast forecast(UUID userId) {
+        LocalDate today = LocalDate.ofEpochDay(sm2Engine.todayEpochDay());
+        Forecast cached = cache.getIfPresent(userId);
+        if (cached != null && cached.today().equals(today)) {
+            return cached;
+        }
+        int stripe = stripe(userId);
+        long changesBefore = changes.get(stripe);
+        Forecast forecast = compute(userId, today);
+        if (changes.get(stripe) == changesBefore) {
+            cache.put(userId, forecast);
+        }
+        return forecast;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemsChanged(ItemsChanged event) {
+        if (event.userIds() == null) {
+            for (int i = 0; i < CHANGE_STRIPES; i++) {
+                changes.incrementAndGet(i);
+            }
+            cache.invalidateAll();
+            return;
+        }
+        for (UUID userId : event.userIds()) {
+            changes.incrementAndGet(stripe(userId));
+        }
+        cache.invalidateAll(event.userIds());
+    }
+
+    private static int stripe(UUID userId) {
+        return userId.hashCode() & (CHANGE_STRIPES - 1);
+    }
+
+    private Forecast compute(UUID userId, LocalDate today) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        ScheduleArrays items = new ScheduleArrays();
+        jdbcTemplate.query(ITEMS_SQL, (RowCallbackHandler) rs -> items.add(rs.getDouble("ease_factor"),
+                rs.getInt("interval_days"), rs.getInt("repetitions"),
+                rs.getLong("due_epoch_day")), userId);
+        int quality = expectedQuality(userId);
+
+        int[] load = items.size == 0 ? new int[days]
+                : pool.invoke(new LoadTask(items, quality, today.toEpochDay(), days, 0, items.size));
+        sample.stop(Timer.builder("reviews.forecast")
+                .description("Workload forecast computation for one user")
+                .register(meterRegistry));
+
+        List<DayLoad> daily = new ArrayList<>(days);
+        long total = 0;
+        for (int i = 0; i < days; i++) {
+            daily.add(new DayLoad(today.plusDays(i), load[i]));
+            total += load[i];
+        }
+        return new Forecast(today, quality, items.size, total, daily);
+    }
+
+    private int expectedQuality(UUID userId) {
+        Double average = dueCounters.averageQuality(userId, qualityLookbackDays);
+        return average == null ? defaultQuality : (int) Math.round(average);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdown();
+    }
+
+    /**
+     * @param quality    the quality every simulated review was given
+     * @param items      scheduled items simulated
+     * @param dailyLoad  reviews per day, starting today; overdue items count today
+     */
+    public record Forecast(LocalDate today, int quality, int items, long totalReviews, List<DayLoad> dailyLoad) {
+    }
+
+    public record DayLoad(LocalDate date, int reviews) {
+    }
+
+    /**
+     * Splits the item range in halves until it is small enough to simulate in
+     * one go; each leaf fills its own counts and parents sum their children's.
+     */
+    private static final class LoadTask extends RecursiveTask<int[]> {
+
+        private final ScheduleArrays items;
+        private final int quality;
+        private final long fromEpochDay;
+        private final int days;
+        private final int from;
+        private final int to;
+
+        private LoadTask(ScheduleArrays items, int quality, long fromEpochDay, int days, int from, int to) {
+            this.items = items;
+            this.quality = quality;
+            this.fromEpochDay = fromEpochDay;
+            this.days = days;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected int[] compute() {
+            if (to - from <= MIN_ITEMS_PER_TASK) {
+                int[] load = new int[days];
+                Sm2Engine.projectLoad(items.easeFactors, items.intervals, items.repetitions,
+                        items.nextReviewEpochDay, quality, fromEpochDay, load, from, to);
+                return load;
+            }
+            int middle = (from + to) >>> 1;
+            LoadTask left = new LoadTask(items, quality, fromEpochDay, days, from, middle);
+            left.fork();
+            int[] load = new LoadTask(items, quality, fromEpochDay, days, middle, to).compute();
+            int[] leftLoad = left.join();
+            for (int i = 0; i < days; i++) {
+                load[i] += leftLoad[i];
+            }
+            return load;
+        }
+    }
+
+    /**
+     * Growable parallel arrays for the simulation input.
+     */
+    private static final class ScheduleArrays {
+
+        private double[] easeFactors = new double[64];
+        private int[] intervals = new int[64];
+        private int[] repetitions = new int[64];
+        private long[] nextReviewEpochDay = new long[64];
+        private int size;
+
+        private void add(double easeFactor, int interval, int reps, long dueEpochDay) {
+            if (size == easeFactors.length) {
+                int capacity = size * 2;
+                easeFactors = Arrays.copyOf(easeFactors, capacity);
+                intervals = Arrays.copyOf(intervals, capacity);
+                repetitions = Arrays.copyOf(repetitions, capacity);
+                nextReviewEpochDay = Arrays.copyOf(nextReviewEpochDay, capacity);
+            }
+            easeFactors[size] = easeFactor;
+            intervals[size] = interval;
+            repetitions[size] = reps;
+            nextReviewEpochDay[size++] = dueEpochDay;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.leetcoder.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+
+/**
+ * Identifies this replica in lease and job-run tables. Defaults to
+ * {@code hostname-pid}, which is unique per container and per local process.
+ */
+@Component
+public class ClusterNode {
+
+    private final String id;
+
+    public ClusterNode(@Value("${app.cluster.node-id:}") String configuredId) {
+        this.id = configuredId.isBlank() ? hostname() + "-" + ProcessHandle.current().pid() : configuredId;
+    }
+
+    public String id() {
+        return id;
+    }
+
+    private static String hostname() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "unknown-host";
+        }
+    }
+}
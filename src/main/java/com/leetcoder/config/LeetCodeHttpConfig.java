@@ -0,0 +1,90 @@
+package com.leetcoder.config;
+
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.HttpClientBuilder;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.InterceptingClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Transport for {@link com.leetcoder.infrastructure.client.LeetCodeClient}.
+ * HTTP/1.1 uses a pooled Apache client that keeps connections alive between
+ * calls and decompresses gzip itself; HTTP/2 uses the JDK client, which
+ * multiplexes calls over one connection but leaves gzip decoding to the caller.
+ */
+@Configuration
+public class LeetCodeHttpConfig {
+
+    @Bean
+    public ClientHttpRequestFactory leetCodeRequestFactory(
+            @Value("${app.leetcode.http.version:HTTP_1_1}") HttpClient.Version version,
+            @Value("${app.leetcode.http.connect-timeout:2s}") Duration connectTimeout,
+            @Value("${app.leetcode.http.read-timeout:10s}") Duration readTimeout,
+            @Value("${app.leetcode.http.max-connections:20}") int maxConnections,
+            @Value("${app.leetcode.http.keep-alive:30s}") Duration keepAlive,
+            @Value("${app.leetcode.http.gzip:true}") boolean gzip) {
+        if (version == HttpClient.Version.HTTP_2) {
+            return jdkRequestFactory(connectTimeout, readTimeout, gzip);
+        }
+        return pooledRequestFactory(connectTimeout, readTimeout, Math.max(1, maxConnections), keepAlive, gzip);
+    }
+
+    private static ClientHttpRequestFactory pooledRequestFactory(Duration connectTimeout, Duration readTimeout,
+            int maxConnections, Duration keepAlive, boolean gzip) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnections)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeout.toMillis()))
+                        .setSocketTimeout(Timeout.ofMilliseconds(readTimeout.toMillis()))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .build())
+                .build();
+
+        HttpClientBuilder builder = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setResponseTimeout(Timeout.ofMilliseconds(readTimeout.toMillis()))
+                        // Used when the server doesn't say how long it keeps the connection open
+                        .setConnectionKeepAlive(TimeValue.ofMilliseconds(keepAlive.toMillis()))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofMilliseconds(keepAlive.toMillis()));
+        if (!gzip) {
+            builder.disableContentCompression();
+        }
+        return new HttpComponentsClientHttpRequestFactory(builder.build());
+    }
+
+    private static ClientHttpRequestFactory jdkRequestFactory(Duration connectTimeout, Duration readTimeout,
+            boolean gzip) {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(connectTimeout)
+                .build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(readTimeout);
+        if (!gzip) {
+            return requestFactory;
+        }
+        return new InterceptingClientHttpRequestFactory(requestFactory, List.of((request, body, execution) -> {
+            request.getHeaders().set(HttpHeaders.ACCEPT_ENCODING, "gzip");
+            return execution.execute(request, body);
+        }));
+    }
+}
@@ -0,0 +1,22 @@
+package com.leetcoder.config;
+
+import com.leetcoder.domain.scheduling.Sm2Engine;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+
+@Configuration
+public class SchedulingEngineConfig {
+
+    // The JVM default zone is pinned to UTC in LeetCodeSRSApplication.main
+    @Bean
+    public Clock clock() {
+        return Clock.systemDefaultZone();
+    }
+
+    @Bean
+    public Sm2Engine sm2Engine(Clock clock) {
+        return new Sm2Engine(clock);
+    }
+}
@@ -0,0 +1,38 @@
+package com.leetcoder.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * study_items ids used to come from an IDENTITY column. The pooled sequence
+ * created by Hibernate starts at 1, so on databases that already hold rows it
+ * is moved past the current max id once at startup to avoid key collisions.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StudyItemSequenceInitializer implements ApplicationRunner {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        try {
+            Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM study_items", Long.class);
+            Long lastValue = jdbcTemplate.queryForObject("SELECT last_value FROM study_items_seq", Long.class);
+            // The next nextval then returns maxId + increment, and the pooled
+            // optimizer hands out the block just above maxId
+            if (maxId != null && lastValue != null && lastValue < maxId) {
+                jdbcTemplate.queryForObject("SELECT setval('study_items_seq', ?)", Long.class, maxId);
+                log.info("Advanced study_items_seq past existing id {}", maxId);
+            }
+        } catch (DataAccessException e) {
+            log.warn("Could not align study_items_seq with existing ids: {}", e.getMessage());
+        }
+    }
+}
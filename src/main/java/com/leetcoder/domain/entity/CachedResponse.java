@@ -0,0 +1,40 @@
+package com.leetcoder.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * One cached LeetCode GraphQL result, keyed by a hash of query and variables.
+ * A null body records that LeetCode had nothing for the key (negative entry).
+ * Expired rows are kept for a while so they can still be served while
+ * LeetCode is unavailable.
+ */
+@Entity
+@Table(name = "leetcode_response_cache", indexes = {
+        @Index(name = "idx_leetcode_response_cache_expires_at", columnList = "expires_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class CachedResponse {
+
+    @Id
+    @Column(length = 64)
+    private String cacheKey;
+
+    @Column(nullable = false)
+    private String operation;
+
+    @Column(columnDefinition = "text")
+    private String body;
+
+    @Column(nullable = false)
+    private LocalDateTime fetchedAt;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,32 @@
+package com.leetcoder.domain.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Marks one run of a scheduled job (e.g. one hour's reminders) as taken by a
+ * node, so replicas firing the same cron don't all do the work.
+ */
+@Entity
+@Table(name = "job_runs")
+@Getter
+@Setter
+@NoArgsConstructor
+public class JobRun {
+
+    @Id
+    private String runKey;
+
+    @Column(nullable = false)
+    private String owner;
+
+    @Column(nullable = false)
+    private LocalDateTime claimedAt;
+}
@@ -2,12 +2,16 @@ package com.leetcoder.domain.entity;
 
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.springframework.data.domain.Persistable;
 
 @Entity
 @Table(name = "questions")
@@ -16,7 +20,7 @@ import lombok.Setter;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-public class Question {
+public class Question implements Persistable<String> {
 
     @Id
     private String titleSlug; // Primary Key
@@ -26,4 +30,26 @@ public class Question {
     private String difficulty; // Easy/Medium/Hard
 
     private String url;
+
+    // The slug is assigned, not generated. Tracking newness lets saveAll insert
+    // directly (and in batches) instead of merging with a SELECT per row.
+    @Transient
+    @Builder.Default
+    private boolean newEntity = true;
+
+    @Override
+    public String getId() {
+        return titleSlug;
+    }
+
+    @Override
+    public boolean isNew() {
+        return newEntity;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.newEntity = false;
+    }
 }
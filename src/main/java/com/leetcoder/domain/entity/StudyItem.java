@@ -6,12 +6,15 @@ import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "study_items", uniqueConstraints = {
         @UniqueConstraint(columnNames = { "user_id", "question_title_slug" })
+}, indexes = {
+        @Index(name = "idx_study_items_user_next_review", columnList = "user_id, next_review_at")
 })
 @Getter
 @Setter
@@ -20,15 +23,19 @@ import java.time.LocalDateTime;
 @Builder
 public class StudyItem {
 
+    // Pooled sequence instead of IDENTITY so Hibernate can batch inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "study_items_seq")
+    @SequenceGenerator(name = "study_items_seq", sequenceName = "study_items_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
-    @ManyToOne(fetch = FetchType.EAGER) // Eager fetch is okay for reference data
+    // Lazy: question metadata is served from QuestionCatalogService, and queries
+    // that need it alongside the item join fetch it explicitly
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "question_title_slug", nullable = false)
     private Question question;
 
@@ -46,4 +53,11 @@ public class StudyItem {
     private LocalDateTime lastReviewedAt;
 
     private LocalDateTime nextReviewAt;
+
+    // Optimistic lock: concurrent reviews or a review racing a sync can't silently
+    // overwrite each other. Left null on new items so Spring Data treats them as new.
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
 }
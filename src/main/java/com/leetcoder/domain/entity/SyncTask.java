@@ -0,0 +1,37 @@
+package com.leetcoder.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One user's place in the distributed sync queue. A task is pending while
+ * {@code completedAt} is older than {@code requestedAt}; a node owns it while
+ * its lease has not expired. Rows are written with native SQL only.
+ */
+@Entity
+@Table(name = "sync_tasks", indexes = {
+        @Index(name = "idx_sync_tasks_requested_at", columnList = "requested_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class SyncTask {
+
+    @Id
+    @Column(name = "user_id")
+    private UUID userId;
+
+    @Column(nullable = false)
+    private LocalDateTime requestedAt;
+
+    private LocalDateTime completedAt;
+
+    private String leaseOwner;
+
+    private LocalDateTime leaseExpiresAt;
+}
@@ -8,13 +8,19 @@ import lombok.Setter;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
+import com.leetcoder.domain.scheduling.ReminderBucket;
 import org.hibernate.annotations.UuidGenerator;
 
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "users") // 'user' is a reserved keyword in Postgres
+// 'user' is a reserved keyword in Postgres
+@Table(name = "users", indexes = {
+        @Index(name = "idx_users_reminder_hour_utc", columnList = "reminder_hour_utc")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -41,10 +47,22 @@ public class User {
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
+    // Time of the newest accepted submission already applied by sync (UTC)
+    private LocalDateTime lastSyncedSubmissionAt;
+
+    // UTC hour at which 09:00 local falls; the hourly reminder job selects users by it
+    private Integer reminderHourUtc;
+
     @PrePersist
     protected void onCreate() {
         if (createdAt == null) {
             createdAt = LocalDateTime.now();
         }
+        onUpdate();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        reminderHourUtc = ReminderBucket.forTimezone(timezone, ZonedDateTime.now(ZoneOffset.UTC));
     }
 }
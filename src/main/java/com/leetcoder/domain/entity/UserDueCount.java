@@ -0,0 +1,51 @@
+package com.leetcoder.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * How many of a user's scheduled items of one difficulty fall due on one
+ * (UTC) day. Kept in step with study_items by applying a -1/+1 per schedule
+ * change, so the stats endpoint reads a few rows per day instead of every
+ * item. Rows are written with native SQL only; counts can drop to zero.
+ */
+@Entity
+@Table(name = "user_due_counts", indexes = {
+        // Hibernate picks the primary key's column order, so per-user reads get their own index
+        @Index(name = "idx_user_due_counts_user_date", columnList = "user_id, due_date")
+})
+@IdClass(UserDueCount.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+public class UserDueCount {
+
+    @Id
+    private UUID userId;
+
+    @Id
+    private LocalDate dueDate;
+
+    @Id
+    private String difficulty;
+
+    @Column(nullable = false)
+    private int itemCount;
+
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private UUID userId;
+        private LocalDate dueDate;
+        private String difficulty;
+    }
+}
@@ -0,0 +1,48 @@
+package com.leetcoder.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Number of reviews (manual or synced solves) a user did on one UTC day and
+ * their total quality, for streaks and the user's mean quality. Rows are
+ * written with native SQL only.
+ */
+@Entity
+@Table(name = "user_review_activity", indexes = {
+        @Index(name = "idx_user_review_activity_user_date", columnList = "user_id, activity_date")
+})
+@IdClass(UserReviewActivity.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+public class UserReviewActivity {
+
+    @Id
+    private UUID userId;
+
+    @Id
+    private LocalDate activityDate;
+
+    @Column(nullable = false)
+    private int reviewCount;
+
+    // Sum of those reviews' qualities; null for days counted before it was kept
+    private Integer qualitySum;
+
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private UUID userId;
+        private LocalDate activityDate;
+    }
+}
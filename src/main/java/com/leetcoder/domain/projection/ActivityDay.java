@@ -0,0 +1,6 @@
+package com.leetcoder.domain.projection;
+
+import java.time.LocalDate;
+
+public record ActivityDay(LocalDate date, int reviewCount) {
+}
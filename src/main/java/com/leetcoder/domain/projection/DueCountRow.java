@@ -0,0 +1,9 @@
+package com.leetcoder.domain.projection;
+
+import java.time.LocalDate;
+
+/**
+ * One row of a user's due-count summary.
+ */
+public record DueCountRow(LocalDate dueDate, String difficulty, int itemCount) {
+}
@@ -0,0 +1,11 @@
+package com.leetcoder.domain.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * A due study item as returned by the due-queue API, read straight from the
+ * query without managed entities.
+ */
+public record DueItemView(Long studyItemId, String titleSlug, String title, String difficulty,
+        LocalDateTime nextReviewAt) {
+}
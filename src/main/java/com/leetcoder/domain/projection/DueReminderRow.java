@@ -0,0 +1,11 @@
+package com.leetcoder.domain.projection;
+
+import java.util.UUID;
+
+/**
+ * One due study item joined with what the reminder email needs from its user
+ * and question, so the job never loads managed entities.
+ */
+public record DueReminderRow(UUID userId, String email, String leetcodeUsername, String questionTitle,
+        String questionUrl) {
+}
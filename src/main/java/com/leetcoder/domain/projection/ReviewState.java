@@ -0,0 +1,11 @@
+package com.leetcoder.domain.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * The SM-2 state of a study item plus the version it was read at, enough to
+ * compute a review and write it back with a conditional update.
+ */
+public record ReviewState(Long id, Double easeFactor, Integer intervalDays, Integer repetitions,
+        LocalDateTime nextReviewAt, Long version) {
+}
@@ -0,0 +1,50 @@
+package com.leetcoder.domain.scheduling;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+
+/**
+ * Maps a user's timezone to the UTC hour at which their local reminder time
+ * falls. Zones with a sub-hour offset round up, so the reminder never goes out
+ * before 09:00 local.
+ */
+public final class ReminderBucket {
+
+    public static final LocalTime REMINDER_TIME = LocalTime.of(9, 0);
+
+    private ReminderBucket() {
+    }
+
+    /**
+     * @return the UTC hour (0-23) of the next local reminder time at or after {@code now}
+     */
+    public static int forTimezone(String timezone, ZonedDateTime now) {
+        ZoneId zone = zoneOrUtc(timezone);
+        LocalDate date = now.withZoneSameInstant(zone).toLocalDate();
+        ZonedDateTime reminder = ZonedDateTime.of(date, REMINDER_TIME, zone);
+        if (reminder.isBefore(now)) {
+            reminder = ZonedDateTime.of(date.plusDays(1), REMINDER_TIME, zone);
+        }
+        ZonedDateTime utc = reminder.withZoneSameInstant(ZoneOffset.UTC);
+        int hour = utc.getHour();
+        if (utc.getMinute() > 0 || utc.getSecond() > 0) {
+            hour = (hour + 1) % 24;
+        }
+        return hour;
+    }
+
+    public static ZoneId zoneOrUtc(String timezone) {
+        if (timezone == null || timezone.isBlank()) {
+            return ZoneOffset.UTC;
+        }
+        try {
+            return ZoneId.of(timezone);
+        } catch (DateTimeException e) {
+            return ZoneOffset.UTC;
+        }
+    }
+}
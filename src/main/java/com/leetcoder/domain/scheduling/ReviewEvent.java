@@ -0,0 +1,30 @@
+package com.leetcoder.domain.scheduling;
+
+import java.time.LocalDateTime;
+
+/**
+ * One review as kept in review history: its quality, the item's SM-2 state
+ * before and after it, and where it came from. {@code appliedAt} is the moment
+ * the new schedule was computed from, so the new {@code nextReviewAt} is
+ * {@code appliedAt} plus the new interval; {@code reviewedAt} is when the
+ * problem was solved, which for synced solves is the submission time.
+ * <p>
+ * A schedule shift is kept as a {@code SHIFT} event without a quality: only
+ * {@code nextReviewAt} differs between before and after, by the offset, and
+ * {@code reviewedAt} is the item's last review, which the shift leaves alone.
+ *
+ * @param before state before the review, null for an item created by it
+ */
+public record ReviewEvent(long studyItemId, Source source, int quality, LocalDateTime reviewedAt,
+        LocalDateTime appliedAt, State before, State after) {
+
+    public enum Source {
+        MANUAL, SYNC, RESET, SHIFT
+    }
+
+    /**
+     * @param nextReviewAt null while the item is unscheduled, e.g. after a reset
+     */
+    public record State(double easeFactor, int intervalDays, int repetitions, LocalDateTime nextReviewAt) {
+    }
+}
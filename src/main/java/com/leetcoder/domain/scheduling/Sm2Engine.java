@@ -0,0 +1,111 @@
+package com.leetcoder.domain.scheduling;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * SuperMemo-2 scheduling over primitives. Single reviews and bulk passes share
+ * the same arithmetic; the bulk methods update parallel arrays in place and
+ * allocate nothing per item, so millions of items can be rescheduled in one
+ * pass. Time comes from the injected {@link Clock} only.
+ */
+public final class Sm2Engine {
+
+    public static final double DEFAULT_EASE_FACTOR = 2.5;
+    public static final double MIN_EASE_FACTOR = 1.3;
+    public static final int PASSING_QUALITY = 3;
+
+    private final Clock clock;
+
+    public Sm2Engine(Clock clock) {
+        this.clock = clock;
+    }
+
+    public Clock clock() {
+        return clock;
+    }
+
+    public LocalDateTime now() {
+        return LocalDateTime.now(clock);
+    }
+
+    public long todayEpochDay() {
+        return LocalDate.now(clock).toEpochDay();
+    }
+
+    // EF' = EF + (0.1 - (5 - q) * (0.08 + (5 - q) * 0.02)), floored at 1.3; unchanged on a failed review
+    public static double nextEaseFactor(double easeFactor, int quality) {
+        if (quality < PASSING_QUALITY) {
+            return easeFactor;
+        }
+        double next = easeFactor + (0.1 - (5 - quality) * (0.08 + (5 - quality) * 0.02));
+        return next < MIN_EASE_FACTOR ? MIN_EASE_FACTOR : next;
+    }
+
+    public static int nextRepetitions(int repetitions, int quality) {
+        return quality < PASSING_QUALITY ? 0 : repetitions + 1;
+    }
+
+    /**
+     * @param nextRepetitions  result of {@link #nextRepetitions}
+     * @param nextEaseFactor   result of {@link #nextEaseFactor}
+     */
+    public static int nextInterval(int interval, int nextRepetitions, double nextEaseFactor, int quality) {
+        if (quality < PASSING_QUALITY || nextRepetitions == 1) {
+            return 1;
+        }
+        if (nextRepetitions == 2) {
+            return 6;
+        }
+        return (int) Math.round(interval * nextEaseFactor);
+    }
+
+    /**
+     * Applies one review with the given quality to every item in {@code [from, to)}.
+     * Arrays are updated in place; {@code nextReviewEpochDay} becomes
+     * {@code reviewEpochDay + interval}.
+     */
+    public static void reschedule(double[] easeFactors, int[] intervals, int[] repetitions,
+            long[] nextReviewEpochDay, int[] qualities, long reviewEpochDay, int from, int to) {
+        for (int i = from; i < to; i++) {
+            int quality = qualities[i];
+            double easeFactor = nextEaseFactor(easeFactors[i], quality);
+            int reps = nextRepetitions(repetitions[i], quality);
+            int interval = nextInterval(intervals[i], reps, easeFactor, quality);
+            easeFactors[i] = easeFactor;
+            repetitions[i] = reps;
+            intervals[i] = interval;
+            nextReviewEpochDay[i] = reviewEpochDay + interval;
+        }
+    }
+
+    /**
+     * Counts the reviews each item in {@code [from, to)} would get on each of
+     * the {@code load.length} days from {@code fromEpochDay} if every review
+     * had the given quality and happened on its due day. Overdue items are
+     * reviewed on the first day. Adds into {@code load}; the state arrays are
+     * read only.
+     */
+    public static void projectLoad(double[] easeFactors, int[] intervals, int[] repetitions,
+            long[] nextReviewEpochDay, int quality, long fromEpochDay, int[] load, int from, int to) {
+        int days = load.length;
+        for (int i = from; i < to; i++) {
+            long due = nextReviewEpochDay[i] - fromEpochDay;
+            if (due >= days) {
+                continue;
+            }
+            int day = due < 0 ? 0 : (int) due;
+            double easeFactor = easeFactors[i];
+            int interval = intervals[i];
+            int reps = repetitions[i];
+            while (day < days) {
+                load[day]++;
+                easeFactor = nextEaseFactor(easeFactor, quality);
+                reps = nextRepetitions(reps, quality);
+                interval = nextInterval(interval, reps, easeFactor, quality);
+                day += Math.max(1, interval);
+            }
+        }
+    }
+}
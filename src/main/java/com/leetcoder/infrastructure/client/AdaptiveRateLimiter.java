@@ -0,0 +1,218 @@
+package com.leetcoder.infrastructure.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Paces calls to LeetCode at a rate that follows upstream feedback (AIMD).
+ * Every healthy response adds {@code additive-increase / rate} permits/s, so
+ * the rate grows by about {@code additive-increase} per second of full use; a
+ * 429, 5xx, timeout or latency spike multiplies it by {@code decrease-factor},
+ * at most once per {@code decrease-cooldown} so a burst of failures from calls
+ * already in flight counts once. {@code Retry-After} pauses all calls until it
+ * has passed.
+ * <p>
+ * Callers don't get dropped when no permit is free: each one reserves the next
+ * slot and waits for it, up to {@code max-wait}. A caller whose slot falls
+ * inside a later Retry-After pause is rescheduled after it.
+ */
+@Component
+@Slf4j
+public class AdaptiveRateLimiter {
+
+    private static final double LATENCY_SMOOTHING = 0.1;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final double minRate;
+    private final double maxRate;
+    private final double additiveIncrease;
+    private final double decreaseFactor;
+    private final double latencySpikeFactor;
+    private final long maxWaitNanos;
+    private final long cooldownNanos;
+    private final MeterRegistry meterRegistry;
+    private final Timer permittedWait;
+    private final Timer rejectedWait;
+
+    // Guarded by lock
+    private double rate;
+    private long nextFreeNanos;
+    private long blockedUntilNanos;
+    private long lastDecreaseNanos;
+    private double baselineLatencyNanos;
+
+    public AdaptiveRateLimiter(MeterRegistry meterRegistry,
+            @Value("${app.leetcode.rate-limit.initial-rate:5}") double initialRate,
+            @Value("${app.leetcode.rate-limit.min-rate:0.5}") double minRate,
+            @Value("${app.leetcode.rate-limit.max-rate:20}") double maxRate,
+            @Value("${app.leetcode.rate-limit.additive-increase:1}") double additiveIncrease,
+            @Value("${app.leetcode.rate-limit.decrease-factor:0.5}") double decreaseFactor,
+            @Value("${app.leetcode.rate-limit.latency-spike-factor:3}") double latencySpikeFactor,
+            @Value("${app.leetcode.rate-limit.decrease-cooldown:1s}") Duration decreaseCooldown,
+            @Value("${app.leetcode.rate-limit.max-wait:60s}") Duration maxWait) {
+        this.minRate = Math.max(0.01, minRate);
+        this.maxRate = Math.max(this.minRate, maxRate);
+        this.rate = Math.min(this.maxRate, Math.max(this.minRate, initialRate));
+        this.additiveIncrease = additiveIncrease;
+        this.decreaseFactor = Math.min(1, Math.max(0.01, decreaseFactor));
+        this.latencySpikeFactor = latencySpikeFactor;
+        this.cooldownNanos = decreaseCooldown.toNanos();
+        this.maxWaitNanos = maxWait.toNanos();
+        long now = System.nanoTime();
+        this.nextFreeNanos = now;
+        this.blockedUntilNanos = now;
+        this.lastDecreaseNanos = now - cooldownNanos;
+        this.meterRegistry = meterRegistry;
+        this.permittedWait = waitTimer(meterRegistry, true);
+        this.rejectedWait = waitTimer(meterRegistry, false);
+        Gauge.builder("leetcode.client.ratelimiter.rate", this, AdaptiveRateLimiter::currentRate)
+                .description("Permits per second the LeetCode rate limiter currently hands out")
+                .register(meterRegistry);
+    }
+
+    private static Timer waitTimer(MeterRegistry registry, boolean permitted) {
+        return Timer.builder("leetcode.client.ratelimiter.wait")
+                .description("Time spent waiting for a LeetCode rate limiter permit")
+                .tag("permitted", String.valueOf(permitted))
+                .register(registry);
+    }
+
+    public double currentRate() {
+        lock.lock();
+        try {
+            return rate;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Blocks until the caller may send one request.
+     *
+     * @throws PermitUnavailableException if no slot frees up within {@code max-wait},
+     *                                    or the thread is interrupted while waiting
+     */
+    public void acquire() {
+        long start = System.nanoTime();
+        long deadline = start + maxWaitNanos;
+        while (true) {
+            long slot;
+            lock.lock();
+            try {
+                long now = System.nanoTime();
+                slot = latest(now, latest(nextFreeNanos, blockedUntilNanos));
+                if (slot - deadline > 0) {
+                    rejectedWait.record(now - start, TimeUnit.NANOSECONDS);
+                    throw new PermitUnavailableException("No LeetCode permit available within "
+                            + Duration.ofNanos(maxWaitNanos));
+                }
+                nextFreeNanos = slot + (long) (1_000_000_000L / rate);
+            } finally {
+                lock.unlock();
+            }
+
+            sleepUntil(slot, start);
+            lock.lock();
+            try {
+                // A Retry-After that arrived while we slept voids the slot
+                if (System.nanoTime() - blockedUntilNanos >= 0) {
+                    permittedWait.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    return;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void sleepUntil(long slot, long start) {
+        long wait = slot - System.nanoTime();
+        if (wait <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(Duration.ofNanos(wait));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            rejectedWait.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw new PermitUnavailableException("Interrupted while waiting for a LeetCode permit");
+        }
+    }
+
+    /**
+     * Feeds back a successful call. Latency well above the running average
+     * counts as congestion.
+     */
+    public void onSuccess(long latencyNanos) {
+        lock.lock();
+        try {
+            boolean spike = baselineLatencyNanos > 0 && latencyNanos > baselineLatencyNanos * latencySpikeFactor;
+            baselineLatencyNanos = baselineLatencyNanos == 0 ? latencyNanos
+                    : baselineLatencyNanos + LATENCY_SMOOTHING * (latencyNanos - baselineLatencyNanos);
+            if (spike) {
+                decrease("latency");
+            } else {
+                rate = Math.min(maxRate, rate + additiveIncrease / rate);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Feeds back a throttled, failed or timed-out call.
+     *
+     * @param reason     fixed metric tag: throttled, server_error or timeout
+     * @param retryAfter the upstream's Retry-After, or null
+     */
+    public void onCongestion(String reason, Duration retryAfter) {
+        lock.lock();
+        try {
+            decrease(reason);
+            if (retryAfter != null && !retryAfter.isNegative()) {
+                blockedUntilNanos = latest(blockedUntilNanos, System.nanoTime() + retryAfter.toNanos());
+                log.warn("LeetCode asked to back off for {}; pausing calls.", retryAfter);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void decrease(String reason) {
+        long now = System.nanoTime();
+        if (now - lastDecreaseNanos < cooldownNanos) {
+            return;
+        }
+        lastDecreaseNanos = now;
+        double previous = rate;
+        rate = Math.max(minRate, rate * decreaseFactor);
+        log.info("LeetCode rate cut from {} to {} permits/s ({}).", String.format("%.2f", previous),
+                String.format("%.2f", rate), reason);
+        Counter.builder("leetcode.client.ratelimiter.decreases")
+                .description("Times the LeetCode rate was cut after upstream pushback")
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    // nanoTime values are only comparable by difference
+    private static long latest(long a, long b) {
+        return a - b >= 0 ? a : b;
+    }
+
+    public static class PermitUnavailableException extends RuntimeException {
+
+        public PermitUnavailableException(String message) {
+            super(message);
+        }
+    }
+}
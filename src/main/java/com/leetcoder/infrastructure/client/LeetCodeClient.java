@@ -1,31 +1,106 @@
 package com.leetcoder.infrastructure.client;
 
-import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
-import io.github.resilience4j.ratelimiter.annotation.RateLimiter;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.stereotype.Component;
+import org.springframework.web.client.DefaultResponseErrorHandler;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.ResponseErrorHandler;
 import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientResponseException;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.zip.GZIPInputStream;
 
 @Component
 public class LeetCodeClient {
 
+  private static final ResponseErrorHandler ERROR_HANDLER = new DefaultResponseErrorHandler();
+
+  // Single-question shape; cache keys for questions use it whichever query fetched them
+  private static final String QUESTION_QUERY = """
+      query questionData($titleSlug: String!) {
+        question(titleSlug: $titleSlug) {
+          questionId
+          title
+          titleSlug
+          difficulty
+        }
+      }
+      """;
+
   private final RestClient restClient;
+  private final ObjectMapper objectMapper;
+  private final int questionBatchSize;
+  private final AdaptiveRateLimiter rateLimiter;
+  private final int maxThrottleRetries;
+  private final CircuitBreaker circuitBreaker;
+  private final LeetCodeResponseCache responseCache;
+  private final MeterRegistry meterRegistry;
 
-  public LeetCodeClient(RestClient.Builder builder) {
+  public LeetCodeClient(RestClient.Builder builder,
+      @Qualifier("leetCodeRequestFactory") ClientHttpRequestFactory requestFactory,
+      @Value("${app.leetcode.base-url:https://leetcode.com}") String baseUrl,
+      @Value("${app.leetcode.question-batch-size:20}") int questionBatchSize,
+      @Value("${app.leetcode.rate-limit.max-throttle-retries:2}") int maxThrottleRetries,
+      ObjectMapper objectMapper,
+      AdaptiveRateLimiter rateLimiter,
+      CircuitBreakerRegistry circuitBreakerRegistry,
+      LeetCodeResponseCache responseCache,
+      MeterRegistry meterRegistry) {
     this.restClient = builder
-        .baseUrl("https://leetcode.com")
+        .baseUrl(baseUrl)
+        .requestFactory(requestFactory)
         .build();
+    // LeetCode adds fields to its schema freely; only the ones mapped here matter
+    this.objectMapper = objectMapper.copy().disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    this.questionBatchSize = Math.max(1, questionBatchSize);
+    this.rateLimiter = rateLimiter;
+    this.maxThrottleRetries = Math.max(0, maxThrottleRetries);
+    this.circuitBreaker = circuitBreakerRegistry.circuitBreaker("leetcode");
+    this.responseCache = responseCache;
+    this.meterRegistry = meterRegistry;
+  }
+
+  /**
+   * Maximum number of slugs sent in one batched question lookup.
+   * Callers partition larger sets so every request takes exactly one permit.
+   */
+  public int getQuestionBatchSize() {
+    return questionBatchSize;
   }
 
   /**
    * Fetches the last 20 Accepted submissions.
    * Includes 'lang' just in case you want to filter by language later.
+   * Never cached: this is the one call whose answer changes between syncs.
    */
-  @CircuitBreaker(name = "leetcode", fallbackMethod = "submissionFallback")
-  @RateLimiter(name = "leetcode")
   public List<SubmissionDto> getRecentSubmissions(String username) {
     String query = """
         query recentAcSubmissions($username: String!, $limit: Int!) {
@@ -43,86 +118,358 @@ public class LeetCodeClient {
         "query", query,
         "variables", Map.of("username", username, "limit", 20));
 
-    @SuppressWarnings("null")
-    var response = restClient.post()
-        .uri("/graphql")
-        .contentType(MediaType.APPLICATION_JSON)
-        .body(body)
-        .retrieve()
-        .body(SubmissionResponseWrapper.class);
-
-    if (response != null && response.data() != null && response.data().recentAcSubmissionList() != null) {
-      return response.data().recentAcSubmissionList();
-    }
-    return List.of();
+    return call("submissions", body, LeetCodeClient::readSubmissions, List.of());
   }
 
   /**
    * Lazy loads a single question's details.
    */
-  @CircuitBreaker(name = "leetcode", fallbackMethod = "questionFallback")
-  @RateLimiter(name = "leetcode")
   public QuestionDto getQuestionDetails(String titleSlug) {
+    return getQuestionDetails(List.of(titleSlug)).get(titleSlug);
+  }
+
+  /**
+   * Resolves several questions, answering from the response cache first and
+   * fetching the rest in one GraphQL request by aliasing a question(titleSlug:)
+   * field per slug. Send at most {@link #getQuestionBatchSize()} slugs per call.
+   * Unknown slugs are simply absent from the returned map and are remembered as
+   * unknown for a while. If LeetCode can't be reached, expired cache entries
+   * are served instead of nothing.
+   */
+  public Map<String, QuestionDto> getQuestionDetails(Collection<String> titleSlugs) {
+    if (titleSlugs.isEmpty()) {
+      return Map.of();
+    }
+
+    // Cached per slug, so a question costs one lookup no matter which batch it came in
+    Map<String, String> keys = new LinkedHashMap<>();
+    for (String slug : titleSlugs) {
+      keys.put(slug, responseCache.key(QUESTION_QUERY, Map.of("titleSlug", slug)));
+    }
+    Map<String, LeetCodeResponseCache.Entry<QuestionDto>> cached =
+        responseCache.findAll(keys.values(), QuestionDto.class);
+
+    Map<String, QuestionDto> result = new LinkedHashMap<>();
+    List<String> misses = new ArrayList<>();
+    for (Map.Entry<String, String> key : keys.entrySet()) {
+      LeetCodeResponseCache.Entry<QuestionDto> entry = cached.get(key.getValue());
+      if (entry != null && entry.isFresh()) {
+        if (entry.value() != null) {
+          result.put(key.getKey(), entry.value());
+        }
+      } else {
+        misses.add(key.getKey());
+      }
+    }
+    countCache("question", "hit", keys.size() - misses.size());
+    if (misses.isEmpty()) {
+      return result;
+    }
+
+    Map<String, QuestionDto> fetched = call("questionBatch", questionBatchBody(misses),
+        parser -> readQuestionBatch(parser, misses), null);
+
+    if (fetched == null) {
+      int stale = 0;
+      for (String slug : misses) {
+        LeetCodeResponseCache.Entry<QuestionDto> entry = cached.get(keys.get(slug));
+        if (entry != null && entry.value() != null) {
+          result.put(slug, entry.value());
+          stale++;
+        }
+      }
+      countCache("question", "stale", stale);
+      return result;
+    }
+
+    countCache("question", "miss", misses.size());
+    Map<String, QuestionDto> toCache = new HashMap<>();
+    for (String slug : misses) {
+      QuestionDto question = fetched.get(slug);
+      toCache.put(keys.get(slug), question);
+      if (question != null) {
+        result.put(slug, question);
+      }
+    }
+    responseCache.putAll("question", toCache);
+    return result;
+  }
+
+  private static Map<String, Object> questionBatchBody(List<String> slugs) {
+    StringBuilder params = new StringBuilder();
+    StringBuilder fields = new StringBuilder();
+    Map<String, Object> variables = new HashMap<>();
+    for (int i = 0; i < slugs.size(); i++) {
+      if (i > 0) {
+        params.append(", ");
+      }
+      params.append("$s").append(i).append(": String!");
+      fields.append("  q").append(i).append(": question(titleSlug: $s").append(i)
+          .append(") { questionId title titleSlug difficulty }\n");
+      variables.put("s" + i, slugs.get(i));
+    }
+    String query = "query questionBatch(" + params + ") {\n" + fields + "}";
+
+    return Map.of(
+        "query", query,
+        "variables", variables);
+  }
+
+  /**
+   * Fetches one page of the full problem list, used to warm the question catalog.
+   * Pages are cached for {@code app.leetcode.cache.problemset-ttl}; an expired
+   * page is still served while LeetCode is unavailable.
+   */
+  public ProblemsetPage getProblemsetQuestions(int skip, int limit) {
     String query = """
-        query questionData($titleSlug: String!) {
-          question(titleSlug: $titleSlug) {
-            questionId
-            title
-            titleSlug
-            difficulty
+        query problemsetQuestionList($categorySlug: String, $limit: Int, $skip: Int, $filters: QuestionListFilterInput) {
+          problemsetQuestionList: questionList(categorySlug: $categorySlug, limit: $limit, skip: $skip, filters: $filters) {
+            total: totalNum
+            questions: data {
+              questionId
+              title
+              titleSlug
+              difficulty
+            }
           }
         }
         """;
 
+    Map<String, Object> variables = Map.of("categorySlug", "", "limit", limit, "skip", skip, "filters", Map.of());
+    String key = responseCache.key(query, variables);
+    LeetCodeResponseCache.Entry<ProblemsetPage> cached = responseCache.find(key, ProblemsetPage.class);
+    if (cached != null && cached.isFresh() && cached.value() != null) {
+      countCache("problemset", "hit", 1);
+      return cached.value();
+    }
+
     var body = Map.of(
         "query", query,
-        "variables", Map.of("titleSlug", titleSlug));
+        "variables", variables);
 
-    @SuppressWarnings("null")
-    var response = restClient.post()
-        .uri("/graphql")
-        .contentType(MediaType.APPLICATION_JSON)
-        .body(body)
-        .retrieve()
-        .body(QuestionResponseWrapper.class);
+    ProblemsetPage page = call("problemset", body, LeetCodeClient::readProblemsetPage, null);
+    if (page == null) {
+      if (cached != null && cached.value() != null) {
+        countCache("problemset", "stale", 1);
+        return cached.value();
+      }
+      return new ProblemsetPage(0, List.of());
+    }
+    countCache("problemset", "miss", 1);
+    responseCache.put("problemset", key, page);
+    return page;
+  }
 
-    if (response != null && response.data() != null) {
-      return response.data().question();
+  /**
+   * Sends one request through the "leetcode" circuit breaker. Failures are
+   * counted; they and responses without data are answered with {@code fallback}.
+   */
+  private <T> T call(String operation, Object body, ResponseReader<T> reader, T fallback) {
+    try {
+      T response = circuitBreaker.executeCallable(() -> post(operation, body, reader));
+      return response != null ? response : fallback;
+    } catch (Exception e) {
+      countFallback(operation, e);
+      return fallback;
     }
-    return null;
   }
 
-  // --- Fallbacks ---
+  /**
+   * Waits for a permit from the adaptive rate limiter, then sends one GraphQL
+   * request and reports how it went back to the limiter. A 429, or a 5xx that
+   * says when to come back, is retried after Retry-After up to
+   * {@code max-throttle-retries} times; the circuit breaker sees only the last attempt.
+   */
+  @SuppressWarnings("null")
+  private <T> T post(String operation, Object body, ResponseReader<T> reader) {
+    for (int attempt = 0; ; attempt++) {
+      rateLimiter.acquire();
+      Timer.Sample sample = Timer.start(meterRegistry);
+      long start = System.nanoTime();
+      String outcome = "error";
+      try {
+        T response = restClient.post()
+            .uri("/graphql")
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(body)
+            .exchange((request, httpResponse) -> read(httpResponse, reader));
+        rateLimiter.onSuccess(System.nanoTime() - start);
+        outcome = "success";
+        return response;
+      } catch (RestClientResponseException e) {
+        boolean tooManyRequests = e.getStatusCode().isSameCodeAs(HttpStatus.TOO_MANY_REQUESTS);
+        if (!tooManyRequests && !e.getStatusCode().is5xxServerError()) {
+          throw e;
+        }
+        Duration retryAfter = retryAfter(e.getResponseHeaders());
+        rateLimiter.onCongestion(tooManyRequests ? "throttled" : "server_error", retryAfter);
+        if (attempt >= maxThrottleRetries || (!tooManyRequests && retryAfter == null)) {
+          throw e;
+        }
+        outcome = "throttled";
+      } catch (ResourceAccessException e) {
+        rateLimiter.onCongestion("timeout", null);
+        throw e;
+      } finally {
+        sample.stop(Timer.builder("leetcode.client.requests")
+            .description("LeetCode GraphQL request latency")
+            .tags("operation", operation, "outcome", outcome)
+            .register(meterRegistry));
+      }
+    }
+  }
 
-  public List<SubmissionDto> submissionFallback(String username, Throwable t) {
-    // Log the error here with Slf4j if desired
-    return List.of();
+  // Retry-After is either delta-seconds or an HTTP-date
+  private static Duration retryAfter(HttpHeaders headers) {
+    String value = headers == null ? null : headers.getFirst(HttpHeaders.RETRY_AFTER);
+    if (value == null || value.isBlank()) {
+      return null;
+    }
+    try {
+      return Duration.ofSeconds(Long.parseLong(value.trim()));
+    } catch (NumberFormatException e) {
+      try {
+        return Duration.between(ZonedDateTime.now(),
+            ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME));
+      } catch (DateTimeParseException ignored) {
+        return null;
+      }
+    }
   }
 
-  public QuestionDto questionFallback(String titleSlug, Throwable t) {
-    return null;
+  /**
+   * Parses the body straight off the socket; nothing buffers the whole payload.
+   * Error statuses raise the same exceptions as {@code retrieve()} would.
+   */
+  private <T> T read(ClientHttpResponse response, ResponseReader<T> reader) throws IOException {
+    if (ERROR_HANDLER.hasError(response)) {
+      ERROR_HANDLER.handleError(response);
+    }
+    InputStream body = response.getBody();
+    // The pooled client decodes gzip itself and drops the header; the JDK client doesn't
+    if ("gzip".equalsIgnoreCase(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING))) {
+      body = new GZIPInputStream(body);
+    }
+    try (JsonParser parser = objectMapper.createParser(body)) {
+      return parser.nextToken() == JsonToken.START_OBJECT ? reader.read(parser) : null;
+    }
   }
 
-  // --- DTO Records ---
+  @FunctionalInterface
+  private interface ResponseReader<T> {
 
-  // Wrapper: { "data": { "recentAcSubmissionList": [ ... ] } }
-  record SubmissionResponseWrapper(RecentAcSubmissionListResponse data) {
+    // Called with the parser on the response's opening brace
+    T read(JsonParser parser) throws IOException;
   }
 
-  record RecentAcSubmissionListResponse(List<SubmissionDto> recentAcSubmissionList) {
+  // { "data": { "recentAcSubmissionList": [ ... ] } }, one element at a time
+  private static List<SubmissionDto> readSubmissions(JsonParser parser) throws IOException {
+    List<SubmissionDto> submissions = new ArrayList<>();
+    if (moveToField(parser, "data", JsonToken.START_OBJECT)
+        && moveToField(parser, "recentAcSubmissionList", JsonToken.START_ARRAY)) {
+      while (parser.nextToken() == JsonToken.START_OBJECT) {
+        submissions.add(parser.readValueAs(SubmissionDto.class));
+      }
+    }
+    return submissions;
   }
 
-  // Added 'lang' here
-  public record SubmissionDto(String id, String title, String titleSlug, String timestamp, String lang) {
+  // { "data": { "q0": { ... }, "q1": null, ... } }; null if "data" is missing, so unknown slugs
+  // are only reported (and cached as unknown) when LeetCode actually answered for them
+  private static Map<String, QuestionDto> readQuestionBatch(JsonParser parser, List<String> slugs)
+      throws IOException {
+    if (!moveToField(parser, "data", JsonToken.START_OBJECT)) {
+      return null;
+    }
+    Map<String, String> slugsByAlias = new HashMap<>();
+    for (int i = 0; i < slugs.size(); i++) {
+      slugsByAlias.put("q" + i, slugs.get(i));
+    }
+    Map<String, QuestionDto> questions = new HashMap<>();
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String slug = slugsByAlias.get(parser.currentName());
+      if (parser.nextToken() == JsonToken.START_OBJECT && slug != null) {
+        questions.put(slug, parser.readValueAs(QuestionDto.class));
+      } else {
+        parser.skipChildren();
+      }
+    }
+    return questions;
   }
 
-  // Wrapper: { "data": { "question": { ... } } }
-  record QuestionResponseWrapper(QuestionDataResponse data) {
+  // { "data": { "problemsetQuestionList": { "total": n, "questions": [ ... ] } } }, one question at a time
+  private static ProblemsetPage readProblemsetPage(JsonParser parser) throws IOException {
+    if (!moveToField(parser, "data", JsonToken.START_OBJECT)
+        || !moveToField(parser, "problemsetQuestionList", JsonToken.START_OBJECT)) {
+      return null;
+    }
+    int total = 0;
+    List<QuestionDto> questions = new ArrayList<>();
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String field = parser.currentName();
+      JsonToken value = parser.nextToken();
+      if ("total".equals(field) && value == JsonToken.VALUE_NUMBER_INT) {
+        total = parser.getIntValue();
+      } else if ("questions".equals(field) && value == JsonToken.START_ARRAY) {
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+          questions.add(parser.readValueAs(QuestionDto.class));
+        }
+      } else {
+        parser.skipChildren();
+      }
+    }
+    return new ProblemsetPage(total, questions);
+  }
+
+  /**
+   * From the start of an object, skips to the named field and stops on its
+   * value. Returns false if the field is missing or its value isn't {@code expected}
+   * (e.g. null when GraphQL reports an error).
+   */
+  private static boolean moveToField(JsonParser parser, String name, JsonToken expected) throws IOException {
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String field = parser.currentName();
+      JsonToken value = parser.nextToken();
+      if (name.equals(field)) {
+        return value == expected;
+      }
+      parser.skipChildren();
+    }
+    return false;
+  }
+
+  // --- Metrics ---
+
+  private void countFallback(String operation, Throwable t) {
+    String reason = t instanceof CallNotPermittedException ? "circuit_open"
+        : t instanceof AdaptiveRateLimiter.PermitUnavailableException ? "rate_limited"
+        : "error";
+    Counter.builder("leetcode.client.fallbacks")
+        .description("LeetCode calls that failed or were refused and got a fallback answer")
+        .tags("operation", operation, "reason", reason)
+        .register(meterRegistry)
+        .increment();
   }
 
-  record QuestionDataResponse(QuestionDto question) {
+  private void countCache(String operation, String result, int count) {
+    if (count > 0) {
+      Counter.builder("leetcode.client.cache")
+          .description("LeetCode lookups answered by the response cache (hit, stale) or by LeetCode (miss)")
+          .tags("operation", operation, "result", result)
+          .register(meterRegistry)
+          .increment(count);
+    }
+  }
+
+  // --- DTO Records ---
+
+  // Added 'lang' here
+  public record SubmissionDto(String id, String title, String titleSlug, String timestamp, String lang) {
   }
 
   public record QuestionDto(String questionId, String title, String titleSlug, String difficulty) {
   }
-}
\ No newline at end of file
+
+  public record ProblemsetPage(int total, List<QuestionDto> questions) {
+  }
+}
@@ -0,0 +1,154 @@
+package com.leetcoder.infrastructure.client;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.leetcoder.domain.entity.CachedResponse;
+import com.leetcoder.infrastructure.repository.CachedResponseRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Persistent cache of LeetCode GraphQL results in the leetcode_response_cache
+ * table, so immutable data like question metadata survives restarts and doesn't
+ * cost rate-limit permits again. Each operation has its own TTL; lookups that
+ * came back empty are cached for {@code negative-ttl}.
+ */
+@Component
+@Slf4j
+public class LeetCodeResponseCache {
+
+    private final CachedResponseRepository repository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final Map<String, Duration> ttls;
+    private final Duration negativeTtl;
+    private final Duration staleRetention;
+
+    public LeetCodeResponseCache(CachedResponseRepository repository, JdbcTemplate jdbcTemplate,
+            ObjectMapper objectMapper,
+            @Value("${app.leetcode.cache.enabled:true}") boolean enabled,
+            @Value("${app.leetcode.cache.question-ttl:30d}") Duration questionTtl,
+            @Value("${app.leetcode.cache.problemset-ttl:1d}") Duration problemsetTtl,
+            @Value("${app.leetcode.cache.negative-ttl:1d}") Duration negativeTtl,
+            @Value("${app.leetcode.cache.stale-retention:30d}") Duration staleRetention) {
+        this.repository = repository;
+        this.jdbcTemplate = jdbcTemplate;
+        // Sorted map keys make the variables hash independent of insertion order
+        this.objectMapper = objectMapper.copy()
+                .enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        this.enabled = enabled;
+        this.ttls = Map.of("question", questionTtl, "problemset", problemsetTtl);
+        this.negativeTtl = negativeTtl;
+        this.staleRetention = staleRetention;
+    }
+
+    /**
+     * SHA-256 of the query text and its variables.
+     */
+    public String key(String query, Map<String, ?> variables) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(query.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+            digest.update(objectMapper.writeValueAsBytes(variables));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException("Cannot build cache key", e);
+        }
+    }
+
+    /**
+     * Returns every entry found for the keys, expired ones included; callers
+     * decide whether stale data is acceptable. A read failure counts as a miss.
+     */
+    public <T> Map<String, Entry<T>> findAll(Collection<String> keys, Class<T> type) {
+        Map<String, Entry<T>> entries = new HashMap<>();
+        if (!enabled || keys.isEmpty()) {
+            return entries;
+        }
+        try {
+            for (CachedResponse cached : repository.findAllById(keys)) {
+                T value = cached.getBody() == null ? null : objectMapper.readValue(cached.getBody(), type);
+                entries.put(cached.getCacheKey(), new Entry<>(value, cached.getExpiresAt()));
+            }
+        } catch (DataAccessException | JsonProcessingException e) {
+            log.warn("LeetCode response cache read failed: {}", e.getMessage());
+        }
+        return entries;
+    }
+
+    public <T> Entry<T> find(String key, Class<T> type) {
+        return findAll(List.of(key), type).get(key);
+    }
+
+    /**
+     * Stores results of one operation; a null value is stored as a negative entry.
+     */
+    public void putAll(String operation, Map<String, ?> valuesByKey) {
+        if (!enabled || valuesByKey.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Duration ttl = ttls.getOrDefault(operation, Duration.ZERO);
+        try {
+            List<Object[]> rows = new ArrayList<>(valuesByKey.size());
+            for (Map.Entry<String, ?> value : valuesByKey.entrySet()) {
+                String body = value.getValue() == null ? null : objectMapper.writeValueAsString(value.getValue());
+                LocalDateTime expiresAt = now.plus(body == null ? negativeTtl : ttl);
+                rows.add(new Object[] { value.getKey(), operation, body, Timestamp.valueOf(now),
+                        Timestamp.valueOf(expiresAt) });
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO leetcode_response_cache "
+                    + "(cache_key, operation, body, fetched_at, expires_at) VALUES (?, ?, ?, ?, ?) "
+                    + "ON CONFLICT (cache_key) DO UPDATE SET operation = EXCLUDED.operation, body = EXCLUDED.body, "
+                    + "fetched_at = EXCLUDED.fetched_at, expires_at = EXCLUDED.expires_at", rows);
+        } catch (DataAccessException | JsonProcessingException e) {
+            log.warn("LeetCode response cache write failed: {}", e.getMessage());
+        }
+    }
+
+    public void put(String operation, String key, Object value) {
+        Map<String, Object> single = new HashMap<>();
+        single.put(key, value);
+        putAll(operation, single);
+    }
+
+    @Scheduled(cron = "${app.leetcode.cache.cleanup-cron:0 15 1 * * *}")
+    public void purgeStaleEntries() {
+        if (enabled) {
+            int deleted = repository.deleteExpiredBefore(LocalDateTime.now().minus(staleRetention));
+            log.info("Purged {} stale LeetCode responses.", deleted);
+        }
+    }
+
+    /**
+     * @param value null for a negative entry
+     */
+    public record Entry<T>(T value, LocalDateTime expiresAt) {
+
+        public boolean isFresh() {
+            return expiresAt.isAfter(LocalDateTime.now());
+        }
+    }
+}
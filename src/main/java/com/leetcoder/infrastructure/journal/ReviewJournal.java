@@ -0,0 +1,274 @@
+package com.leetcoder.infrastructure.journal;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only local log of study item states for the review write-behind
+ * buffer. Each record holds an item's absolute SM-2 state after a review, not
+ * the review itself, and the item version that state was computed from, so
+ * only the last record per item matters and it can be written with a version
+ * check.
+ * <p>
+ * Records are fixed-size with a CRC; a torn tail from a crash is ignored on
+ * replay. {@link #sync} forces the file to disk with group commit: callers that
+ * appended while another caller's force was running share the next one.
+ * The log is split into segments so flushed prefixes can be deleted.
+ */
+@Slf4j
+public class ReviewJournal implements AutoCloseable {
+
+    // id, base version, ease factor, interval, repetitions, next review (epoch micros, -1 = none), last reviewed, crc
+    private static final int RECORD_SIZE = 8 + 8 + 8 + 4 + 4 + 8 + 8 + 4;
+    private static final String SEGMENT_PREFIX = "reviews-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private final Path directory;
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private FileChannel channel;
+    private long segment;
+    // Bytes appended / known durable, counted across segments
+    private long appended;
+    private volatile long synced;
+
+    public ReviewJournal(Path directory) {
+        this.directory = directory;
+        try {
+            Files.createDirectories(directory);
+            this.segment = segments().stream().mapToLong(ReviewJournal::segmentNumber).max().orElse(0) + 1;
+            this.channel = open(segment);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open review journal in " + directory, e);
+        }
+    }
+
+    /**
+     * Reads every segment in order and returns the last state logged per item.
+     */
+    public Map<Long, Entry> replay() {
+        Map<Long, Entry> latest = new LinkedHashMap<>();
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE);
+        try {
+            for (Path path : segments()) {
+                try (FileChannel in = FileChannel.open(path, StandardOpenOption.READ)) {
+                    while (true) {
+                        buffer.clear();
+                        while (buffer.hasRemaining() && in.read(buffer) > 0) {
+                            // keep reading until the record is complete or the file ends
+                        }
+                        if (buffer.hasRemaining()) {
+                            break;
+                        }
+                        buffer.flip();
+                        Entry entry = decode(buffer);
+                        if (entry == null) {
+                            log.warn("Ignoring corrupt review journal tail in {}", path);
+                            break;
+                        }
+                        latest.put(entry.studyItemId(), entry);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot replay review journal in " + directory, e);
+        }
+        return latest;
+    }
+
+    /**
+     * Appends one record without forcing it to disk.
+     *
+     * @return the position to pass to {@link #sync}
+     */
+    public long append(Entry entry) {
+        ByteBuffer buffer = encode(entry);
+        appendLock.lock();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            appended += RECORD_SIZE;
+            return appended;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot append to review journal", e);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Returns once everything up to {@code position} is on disk.
+     */
+    public void sync(long position) {
+        if (synced >= position) {
+            return;
+        }
+        syncLock.lock();
+        try {
+            if (synced >= position) {
+                return;
+            }
+            long target;
+            FileChannel current;
+            appendLock.lock();
+            try {
+                target = appended;
+                current = channel;
+            } finally {
+                appendLock.unlock();
+            }
+            current.force(false);
+            synced = target;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot sync review journal", e);
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    /**
+     * Starts a new segment; later appends go there.
+     *
+     * @return the number of the segment that was closed, for {@link #deleteThrough}
+     */
+    public long rotate() {
+        syncLock.lock();
+        appendLock.lock();
+        try {
+            channel.force(false);
+            channel.close();
+            synced = appended;
+            long closed = segment;
+            segment++;
+            channel = open(segment);
+            return closed;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot rotate review journal", e);
+        } finally {
+            appendLock.unlock();
+            syncLock.unlock();
+        }
+    }
+
+    /**
+     * Deletes closed segments up to and including {@code segmentNumber} once
+     * their states are in the database.
+     */
+    public void deleteThrough(long segmentNumber) {
+        try {
+            for (Path path : segments()) {
+                if (segmentNumber(path) <= segmentNumber) {
+                    Files.deleteIfExists(path);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Cannot delete flushed review journal segments: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() {
+        appendLock.lock();
+        try {
+            channel.force(false);
+            channel.close();
+        } catch (IOException e) {
+            log.warn("Cannot close review journal: {}", e.getMessage());
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    private FileChannel open(long number) throws IOException {
+        return FileChannel.open(directory.resolve(SEGMENT_PREFIX + number + SEGMENT_SUFFIX),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private List<Path> segments() throws IOException {
+        List<Path> segments = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory,
+                SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            stream.forEach(segments::add);
+        }
+        segments.sort((a, b) -> Long.compare(segmentNumber(a), segmentNumber(b)));
+        return segments;
+    }
+
+    private static long segmentNumber(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static ByteBuffer encode(Entry entry) {
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE);
+        buffer.putLong(entry.studyItemId())
+                .putLong(entry.baseVersion())
+                .putDouble(entry.easeFactor())
+                .putInt(entry.intervalDays())
+                .putInt(entry.repetitions())
+                .putLong(toMicros(entry.nextReviewAt()))
+                .putLong(toMicros(entry.lastReviewedAt()));
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.array(), 0, RECORD_SIZE - 4);
+        buffer.putInt((int) crc.getValue());
+        return buffer.flip();
+    }
+
+    private static Entry decode(ByteBuffer buffer) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.array(), 0, RECORD_SIZE - 4);
+        if (buffer.getInt(RECORD_SIZE - 4) != (int) crc.getValue()) {
+            return null;
+        }
+        return new Entry(buffer.getLong(), buffer.getLong(), buffer.getDouble(), buffer.getInt(), buffer.getInt(),
+                fromMicros(buffer.getLong()), fromMicros(buffer.getLong()));
+    }
+
+    private static long toMicros(LocalDateTime time) {
+        if (time == null) {
+            return -1;
+        }
+        Instant instant = time.toInstant(ZoneOffset.UTC);
+        return instant.getEpochSecond() * 1_000_000 + instant.getNano() / 1_000;
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        if (micros == -1) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000),
+                (int) Math.floorMod(micros, 1_000_000) * 1_000, ZoneOffset.UTC);
+    }
+
+    /**
+     * Absolute SM-2 state of one study item after a review.
+     *
+     * @param baseVersion the item version in the database this state builds on
+     */
+    public record Entry(long studyItemId, long baseVersion, double easeFactor, int intervalDays, int repetitions,
+            LocalDateTime nextReviewAt, LocalDateTime lastReviewedAt) {
+
+        public Entry withBaseVersion(long version) {
+            return new Entry(studyItemId, version, easeFactor, intervalDays, repetitions, nextReviewAt,
+                    lastReviewedAt);
+        }
+    }
+}
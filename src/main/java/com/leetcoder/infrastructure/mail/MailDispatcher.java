@@ -0,0 +1,230 @@
+package com.leetcoder.infrastructure.mail;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailAuthenticationException;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailParseException;
+import org.springframework.mail.MailPreparationException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends rendered messages through a bounded queue drained by a small pool of
+ * workers. Each worker takes up to {@code batch-size} queued messages and hands
+ * them to {@link JavaMailSender#send(MimeMessage...)}, which delivers the whole
+ * batch over a single SMTP connection instead of one handshake per message.
+ */
+@Component
+@Slf4j
+public class MailDispatcher {
+
+    private final JavaMailSender mailSender;
+    private final int parallelism;
+    private final int queueCapacity;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final MeterRegistry meterRegistry;
+    private final Counter sentMessages;
+    private final Counter failedMessages;
+    private final Counter retriedMessages;
+
+    public MailDispatcher(JavaMailSender mailSender, MeterRegistry meterRegistry,
+            @Value("${app.mail.dispatch.parallelism:4}") int parallelism,
+            @Value("${app.mail.dispatch.queue-capacity:200}") int queueCapacity,
+            @Value("${app.mail.dispatch.batch-size:50}") int batchSize,
+            @Value("${app.mail.dispatch.max-attempts:3}") int maxAttempts,
+            @Value("${app.mail.dispatch.initial-backoff:2s}") Duration initialBackoff) {
+        this.mailSender = mailSender;
+        this.parallelism = Math.max(1, parallelism);
+        this.queueCapacity = Math.max(1, queueCapacity);
+        this.batchSize = Math.max(1, batchSize);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoff = initialBackoff;
+        this.meterRegistry = meterRegistry;
+        this.sentMessages = meterRegistry.counter("mail.messages", "result", "sent");
+        this.failedMessages = meterRegistry.counter("mail.messages", "result", "failed");
+        this.retriedMessages = meterRegistry.counter("mail.messages", "result", "retried");
+    }
+
+    /**
+     * Starts the workers for one run. Submit messages, then call
+     * {@link DispatchRun#awaitCompletion()} to drain the queue and get the stats.
+     */
+    public DispatchRun startRun(String name) {
+        return new DispatchRun(name);
+    }
+
+    public record DispatchStats(String run, int sent, int failed, int retried, Duration duration) {
+
+        public double messagesPerSecond() {
+            long millis = Math.max(1, duration.toMillis());
+            return sent * 1000.0 / millis;
+        }
+    }
+
+    public final class DispatchRun {
+
+        private final String name;
+        private final BlockingQueue<MimeMessage> queue = new ArrayBlockingQueue<>(queueCapacity);
+        private final List<Thread> workers = new ArrayList<>();
+        private final AtomicInteger sent = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private final AtomicInteger retried = new AtomicInteger();
+        private final long startNanos = System.nanoTime();
+        private volatile boolean closed;
+
+        private DispatchRun(String name) {
+            this.name = name;
+            for (int i = 0; i < parallelism; i++) {
+                workers.add(Thread.ofVirtual().name("mail-dispatch-" + name + "-" + i).start(this::work));
+            }
+        }
+
+        /**
+         * Queues a message, blocking while the queue is full so rendering can't
+         * run arbitrarily far ahead of delivery.
+         */
+        public void submit(MimeMessage message) throws InterruptedException {
+            if (closed) {
+                throw new IllegalStateException("Dispatch run " + name + " is already closed");
+            }
+            queue.put(message);
+        }
+
+        public DispatchStats awaitCompletion() throws InterruptedException {
+            closed = true;
+            for (Thread worker : workers) {
+                worker.join();
+            }
+            DispatchStats stats = new DispatchStats(name, sent.get(), failed.get(), retried.get(),
+                    Duration.ofNanos(System.nanoTime() - startNanos));
+            sentMessages.increment(stats.sent());
+            failedMessages.increment(stats.failed());
+            retriedMessages.increment(stats.retried());
+            log.info("Mail dispatch '{}' finished: {} sent, {} failed, {} retried in {} ms ({} msg/s).", name,
+                    stats.sent(), stats.failed(), stats.retried(), stats.duration().toMillis(),
+                    String.format("%.1f", stats.messagesPerSecond()));
+            return stats;
+        }
+
+        private void work() {
+            List<MimeMessage> batch = new ArrayList<>(batchSize);
+            try {
+                while (true) {
+                    MimeMessage first = queue.poll(100, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        if (closed && queue.isEmpty()) {
+                            return;
+                        }
+                        continue;
+                    }
+                    batch.add(first);
+                    queue.drainTo(batch, batchSize - 1);
+                    sendWithRetry(batch);
+                    batch.clear();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                // Only what this worker takes off the queue; sendWithRetry already counted its unsent messages
+                List<MimeMessage> dropped = new ArrayList<>();
+                queue.drainTo(dropped);
+                failed.addAndGet(dropped.size());
+                log.warn("Mail dispatch '{}' interrupted, dropping {} queued messages.", name, dropped.size());
+            }
+        }
+
+        private void sendWithRetry(List<MimeMessage> batch) throws InterruptedException {
+            List<MimeMessage> pending = batch;
+            Duration backoff = initialBackoff;
+            for (int attempt = 1; !pending.isEmpty(); attempt++) {
+                List<MimeMessage> transientFailures = send(pending);
+                if (transientFailures.isEmpty()) {
+                    return;
+                }
+                if (attempt >= maxAttempts) {
+                    failed.addAndGet(transientFailures.size());
+                    log.error("Giving up on {} messages after {} attempts.", transientFailures.size(), attempt);
+                    return;
+                }
+                retried.addAndGet(transientFailures.size());
+                try {
+                    Thread.sleep(backoff.toMillis());
+                } catch (InterruptedException e) {
+                    // The rest of the batch is already counted as sent or failed
+                    failed.addAndGet(transientFailures.size());
+                    throw e;
+                }
+                backoff = backoff.multipliedBy(2);
+                pending = transientFailures;
+            }
+        }
+
+        /**
+         * Sends one batch over one connection.
+         *
+         * @return the messages that failed for a reason worth retrying
+         */
+        private List<MimeMessage> send(List<MimeMessage> batch) {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            String outcome = "failure";
+            try {
+                mailSender.send(batch.toArray(MimeMessage[]::new));
+                sent.addAndGet(batch.size());
+                outcome = "success";
+                return List.of();
+            } catch (MailAuthenticationException | MailParseException | MailPreparationException e) {
+                failed.addAndGet(batch.size());
+                log.error("Permanent mail failure for a batch of {} messages", batch.size(), e);
+                return List.of();
+            } catch (MailSendException e) {
+                Map<Object, Exception> failures = e.getFailedMessages();
+                List<MimeMessage> retry = new ArrayList<>();
+                for (Map.Entry<Object, Exception> failure : failures.entrySet()) {
+                    if (failure.getValue() instanceof SendFailedException) {
+                        // Rejected recipients won't be accepted on a retry either
+                        failed.incrementAndGet();
+                        log.error("Mail rejected by server: {}", failure.getValue().getMessage());
+                    } else if (failure.getKey() instanceof MimeMessage message) {
+                        retry.add(message);
+                    }
+                }
+                sent.addAndGet(batch.size() - failures.size());
+                outcome = "partial";
+                log.warn("{} of {} messages failed, {} will be retried: {}", failures.size(), batch.size(),
+                        retry.size(), e.getMessage());
+                return retry;
+            } catch (MailException e) {
+                log.warn("Mail batch of {} messages failed: {}", batch.size(), e.getMessage());
+                return batch;
+            } catch (RuntimeException e) {
+                // Anything else (e.g. a broken session) must not kill the worker, or submit() blocks once the
+                // queue fills; the batch counts as failed and the worker keeps draining
+                failed.addAndGet(batch.size());
+                log.error("Unexpected failure sending a batch of {} messages", batch.size(), e);
+                return List.of();
+            } finally {
+                sample.stop(Timer.builder("mail.send")
+                        .description("Latency of sending one batch over one SMTP connection")
+                        .tag("outcome", outcome)
+                        .register(meterRegistry));
+            }
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.leetcoder.infrastructure.repository;
+
+import com.leetcoder.domain.entity.CachedResponse;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface CachedResponseRepository extends JpaRepository<CachedResponse, String> {
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM CachedResponse c WHERE c.expiresAt < :before")
+    int deleteExpiredBefore(LocalDateTime before);
+}
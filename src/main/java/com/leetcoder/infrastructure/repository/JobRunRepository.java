@@ -0,0 +1,26 @@
+package com.leetcoder.infrastructure.repository;
+
+import com.leetcoder.domain.entity.JobRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface JobRunRepository extends JpaRepository<JobRun, String> {
+
+    // 1 if this caller took the run, 0 if another node already had
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO job_runs (run_key, owner, claimed_at) VALUES (:runKey, :owner, now()) "
+            + "ON CONFLICT (run_key) DO NOTHING", nativeQuery = true)
+    int claim(String runKey, String owner);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM JobRun r WHERE r.claimedAt < :before")
+    int deleteClaimedBefore(LocalDateTime before);
+}
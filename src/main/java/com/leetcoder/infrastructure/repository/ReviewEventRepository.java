@@ -0,0 +1,178 @@
+package com.leetcoder.infrastructure.repository;
+
+import com.leetcoder.domain.scheduling.ReviewEvent;
+import com.leetcoder.domain.scheduling.ReviewEvent.Source;
+import com.leetcoder.domain.scheduling.ReviewEvent.State;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * JDBC access to review_events, an append-only table range-partitioned by
+ * month of {@code applied_at}. Hibernate doesn't manage it: partitioned tables
+ * can't be expressed as an entity, so the DDL lives here. There are no foreign
+ * keys and a single index, to keep inserts cheap; rows outside the monthly
+ * partitions land in review_events_default.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ReviewEventRepository {
+
+    public static final String PARTITION_PREFIX = "review_events_";
+
+    private static final String STATE_COLUMNS = "ease_factor_before, interval_days_before, repetitions_before, "
+            + "next_review_at_before, ease_factor, interval_days, repetitions, next_review_at";
+
+    private static final String INSERT_SQL = "INSERT INTO review_events (study_item_id, source, quality, "
+            + "reviewed_at, applied_at, " + STATE_COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // Resets are logged from the rows they are about to overwrite; never-reviewed items have nothing to reset
+    private static final String INSERT_RESETS_SQL = "INSERT INTO review_events (study_item_id, source, quality, "
+            + "reviewed_at, applied_at, " + STATE_COLUMNS + ") SELECT id, 'RESET', NULL, NULL, ?, ease_factor, "
+            + "interval_days, repetitions, next_review_at, 2.5, 0, 0, NULL FROM study_items WHERE last_reviewed_at IS NOT NULL";
+
+    // Same rows as StudyItemRepository.shiftAllSchedules, logged before it moves them
+    private static final String INSERT_SHIFTS_SQL = "INSERT INTO review_events (study_item_id, source, quality, "
+            + "reviewed_at, applied_at, " + STATE_COLUMNS + ") SELECT id, 'SHIFT', NULL, last_reviewed_at, ?, "
+            + "ease_factor, interval_days, repetitions, next_review_at, ease_factor, interval_days, repetitions, "
+            + "next_review_at + make_interval(days => ?) FROM study_items WHERE next_review_at IS NOT NULL";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void createTable() {
+        jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS review_events_id_seq");
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS review_events ("
+                + "id bigint NOT NULL DEFAULT nextval('review_events_id_seq'), "
+                + "study_item_id bigint NOT NULL, "
+                + "source varchar(8) NOT NULL, "
+                + "quality smallint, "
+                + "reviewed_at timestamp(6), "
+                + "applied_at timestamp(6) NOT NULL, "
+                + "ease_factor_before float(53), "
+                + "interval_days_before integer, "
+                + "repetitions_before integer, "
+                + "next_review_at_before timestamp(6), "
+                + "ease_factor float(53) NOT NULL, "
+                + "interval_days integer NOT NULL, "
+                + "repetitions integer NOT NULL, "
+                + "next_review_at timestamp(6)"
+                + ") PARTITION BY RANGE (applied_at)");
+        // Added after the table was first released
+        jdbcTemplate.execute("ALTER TABLE review_events ADD COLUMN IF NOT EXISTS next_review_at_before timestamp(6)");
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS review_events_default PARTITION OF review_events DEFAULT");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_review_events_item_applied_at "
+                + "ON review_events (study_item_id, applied_at, id)");
+    }
+
+    public static String partitionName(YearMonth month) {
+        return PARTITION_PREFIX + String.format("%04d_%02d", month.getYear(), month.getMonthValue());
+    }
+
+    public void createPartition(YearMonth month) {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partitionName(month)
+                + " PARTITION OF review_events FOR VALUES FROM ('" + month.atDay(1) + "') TO ('"
+                + month.plusMonths(1).atDay(1) + "')");
+    }
+
+    /**
+     * Names of the attached partitions, including the default one.
+     */
+    public List<String> findPartitionNames() {
+        return jdbcTemplate.queryForList("SELECT c.relname FROM pg_inherits i "
+                + "JOIN pg_class c ON c.oid = i.inhrelid JOIN pg_class p ON p.oid = i.inhparent "
+                + "WHERE p.relname = 'review_events'", String.class);
+    }
+
+    /**
+     * Drops a whole month at once, which costs the same no matter how many rows it holds.
+     */
+    public void dropPartition(YearMonth month) {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + partitionName(month));
+    }
+
+    public int deleteDefaultPartitionBefore(LocalDateTime cutoff) {
+        return jdbcTemplate.update("DELETE FROM review_events_default WHERE applied_at < ?",
+                Timestamp.valueOf(cutoff));
+    }
+
+    /**
+     * Inserts the events as one JDBC batch, in the caller's transaction.
+     */
+    public void insertAll(Collection<ReviewEvent> events) {
+        List<Object[]> rows = new ArrayList<>(events.size());
+        for (ReviewEvent event : events) {
+            State before = event.before();
+            rows.add(new Object[] { event.studyItemId(), event.source().name(), event.quality(),
+                    timestamp(event.reviewedAt()), timestamp(event.appliedAt()),
+                    before == null ? null : before.easeFactor(),
+                    before == null ? null : before.intervalDays(),
+                    before == null ? null : before.repetitions(),
+                    before == null ? null : timestamp(before.nextReviewAt()),
+                    event.after().easeFactor(), event.after().intervalDays(), event.after().repetitions(),
+                    timestamp(event.after().nextReviewAt()) });
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+    }
+
+    public int insertResets(UUID userId, LocalDateTime appliedAt) {
+        return jdbcTemplate.update(INSERT_RESETS_SQL + " AND user_id = ?", Timestamp.valueOf(appliedAt), userId);
+    }
+
+    public int insertResetsForAllUsers(LocalDateTime appliedAt) {
+        return jdbcTemplate.update(INSERT_RESETS_SQL, Timestamp.valueOf(appliedAt));
+    }
+
+    public int insertShifts(int days, LocalDateTime appliedAt) {
+        return jdbcTemplate.update(INSERT_SHIFTS_SQL, Timestamp.valueOf(appliedAt), days);
+    }
+
+    /**
+     * Smallest and largest study item id with history, or null if there is none.
+     */
+    public long[] findStudyItemIdRange() {
+        return jdbcTemplate.query("SELECT min(study_item_id), max(study_item_id) FROM review_events",
+                rs -> {
+                    rs.next();
+                    long min = rs.getLong(1);
+                    return rs.wasNull() ? null : new long[] { min, rs.getLong(2) };
+                });
+    }
+
+    /**
+     * Streams the events of items with ids in {@code [fromId, toId]}, per item
+     * in the order they were applied. Resets have quality 0 and no reviewedAt;
+     * shifts have quality 0.
+     */
+    public void forEachEvent(long fromId, long toId, Consumer<ReviewEvent> consumer) {
+        jdbcTemplate.query("SELECT study_item_id, source, quality, reviewed_at, applied_at, " + STATE_COLUMNS
+                + " FROM review_events WHERE study_item_id BETWEEN ? AND ? ORDER BY study_item_id, applied_at, id",
+                (RowCallbackHandler) rs -> consumer.accept(mapRow(rs)), fromId, toId);
+    }
+
+    private static ReviewEvent mapRow(ResultSet rs) throws SQLException {
+        double easeFactorBefore = rs.getDouble("ease_factor_before");
+        State before = rs.wasNull() ? null : new State(easeFactorBefore, rs.getInt("interval_days_before"),
+                rs.getInt("repetitions_before"), rs.getObject("next_review_at_before", LocalDateTime.class));
+        return new ReviewEvent(rs.getLong("study_item_id"), Source.valueOf(rs.getString("source")),
+                rs.getInt("quality"), rs.getObject("reviewed_at", LocalDateTime.class),
+                rs.getObject("applied_at", LocalDateTime.class), before,
+                new State(rs.getDouble("ease_factor"), rs.getInt("interval_days"), rs.getInt("repetitions"),
+                        rs.getObject("next_review_at", LocalDateTime.class)));
+    }
+
+    private static Timestamp timestamp(LocalDateTime time) {
+        return time == null ? null : Timestamp.valueOf(time);
+    }
+}
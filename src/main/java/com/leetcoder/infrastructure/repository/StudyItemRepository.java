@@ -2,13 +2,21 @@ package com.leetcoder.infrastructure.repository;
 
 import com.leetcoder.domain.entity.StudyItem;
 import com.leetcoder.domain.entity.User;
+import com.leetcoder.domain.projection.DueItemView;
+import com.leetcoder.domain.projection.DueReminderRow;
+import com.leetcoder.domain.projection.ReviewState;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 @Repository
 public interface StudyItemRepository extends JpaRepository<StudyItem, Long> {
@@ -16,8 +24,62 @@ public interface StudyItemRepository extends JpaRepository<StudyItem, Long> {
 
     List<StudyItem> findAllByUser(User user);
 
-    @Query("SELECT s FROM StudyItem s WHERE s.nextReviewAt <= :now")
-    List<StudyItem> findAllDueItems(LocalDateTime now);
+    @Query("SELECT s FROM StudyItem s JOIN FETCH s.question q WHERE s.user = :user AND q.titleSlug IN :titleSlugs")
+    List<StudyItem> findAllByUserAndQuestionTitleSlugIn(User user, Collection<String> titleSlugs);
 
-    List<StudyItem> findByNextReviewAtBefore(LocalDateTime now);
+    // Due queue, keyset-paged on (nextReviewAt, id) along idx_study_items_user_next_review
+    @Query("SELECT new com.leetcoder.domain.projection.DueItemView(s.id, q.titleSlug, q.title, q.difficulty, s.nextReviewAt) "
+            + "FROM StudyItem s JOIN s.question q WHERE s.user.id = :userId AND s.nextReviewAt <= :now "
+            + "ORDER BY s.nextReviewAt, s.id")
+    List<DueItemView> findDueItems(UUID userId, LocalDateTime now, Limit limit);
+
+    @Query("SELECT new com.leetcoder.domain.projection.DueItemView(s.id, q.titleSlug, q.title, q.difficulty, s.nextReviewAt) "
+            + "FROM StudyItem s JOIN s.question q WHERE s.user.id = :userId AND s.nextReviewAt <= :now "
+            + "AND (s.nextReviewAt > :afterDueAt OR (s.nextReviewAt = :afterDueAt AND s.id > :afterId)) "
+            + "ORDER BY s.nextReviewAt, s.id")
+    List<DueItemView> findDueItemsAfter(UUID userId, LocalDateTime now, LocalDateTime afterDueAt, Long afterId,
+            Limit limit);
+
+    long countByNextReviewAtLessThanEqual(LocalDateTime now);
+
+    // Keyset page of users with something due, in user id order
+    @Query("SELECT DISTINCT s.user.id FROM StudyItem s WHERE s.nextReviewAt <= :now AND s.user.id > :afterUserId "
+            + "ORDER BY s.user.id")
+    List<UUID> findDueUserIdsAfter(LocalDateTime now, UUID afterUserId, Limit limit);
+
+    @Query("SELECT new com.leetcoder.domain.projection.DueReminderRow(u.id, u.email, u.leetcodeUsername, q.title, q.url) "
+            + "FROM StudyItem s JOIN s.user u JOIN s.question q "
+            + "WHERE s.nextReviewAt <= :now AND u.id IN :userIds ORDER BY u.id, s.nextReviewAt")
+    List<DueReminderRow> findDueReminderRows(LocalDateTime now, Collection<UUID> userIds);
+
+    @Query("SELECT new com.leetcoder.domain.projection.ReviewState(s.id, s.easeFactor, s.intervalDays, s.repetitions, "
+            + "s.nextReviewAt, s.version) FROM StudyItem s WHERE s.id = :id")
+    Optional<ReviewState> findReviewState(Long id);
+
+    // Compare-and-set on the version read with findReviewState; 0 rows means someone else won
+    @Transactional
+    @Modifying
+    @Query("UPDATE StudyItem s SET s.easeFactor = :easeFactor, s.intervalDays = :intervalDays, "
+            + "s.repetitions = :repetitions, s.nextReviewAt = :nextReviewAt, s.lastReviewedAt = :reviewedAt, "
+            + "s.version = s.version + 1 WHERE s.id = :id AND s.version = :version")
+    int applyReviewIfVersion(Long id, Long version, double easeFactor, int intervalDays, int repetitions,
+            LocalDateTime nextReviewAt, LocalDateTime reviewedAt);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE StudyItem s SET s.easeFactor = 2.5, s.intervalDays = 0, s.repetitions = 0, "
+            + "s.nextReviewAt = NULL, s.lastReviewedAt = NULL, s.version = s.version + 1 WHERE s.user.id = :userId")
+    int resetProgressByUserId(UUID userId);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE StudyItem s SET s.easeFactor = 2.5, s.intervalDays = 0, s.repetitions = 0, "
+            + "s.nextReviewAt = NULL, s.lastReviewedAt = NULL, s.version = s.version + 1")
+    int resetAllProgress();
+
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE study_items SET next_review_at = next_review_at + make_interval(days => :days), "
+            + "version = version + 1 WHERE next_review_at IS NOT NULL", nativeQuery = true)
+    int shiftAllSchedules(int days);
 }
@@ -0,0 +1,46 @@
+package com.leetcoder.infrastructure.repository;
+
+import com.leetcoder.domain.entity.SyncTask;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+// Postgres-only: timestamps come from the database clock so nodes never compare their own clocks
+@Repository
+public interface SyncTaskRepository extends JpaRepository<SyncTask, UUID> {
+
+    // Requests a sync of every user; a request within dedupSeconds of the last one is the same run
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO sync_tasks (user_id, requested_at) "
+            + "SELECT u.id, now() FROM users u WHERE u.leetcode_username <> '' "
+            + "ON CONFLICT (user_id) DO UPDATE SET requested_at = EXCLUDED.requested_at "
+            + "WHERE sync_tasks.requested_at <= EXCLUDED.requested_at - make_interval(secs => :dedupSeconds)",
+            nativeQuery = true)
+    int requestAll(long dedupSeconds);
+
+    // Leases up to :limit pending tasks that nobody holds or whose holder's lease ran out.
+    // SKIP LOCKED lets concurrent claimers pass over each other's rows instead of waiting.
+    @Transactional
+    @Query(value = "UPDATE sync_tasks SET lease_owner = :owner, "
+            + "lease_expires_at = now() + make_interval(secs => :leaseSeconds) "
+            + "WHERE user_id IN (SELECT user_id FROM sync_tasks "
+            + "WHERE (completed_at IS NULL OR completed_at < requested_at) "
+            + "AND (lease_expires_at IS NULL OR lease_expires_at < now()) "
+            + "ORDER BY requested_at LIMIT :limit FOR UPDATE SKIP LOCKED) "
+            + "RETURNING user_id", nativeQuery = true)
+    List<UUID> claim(String owner, long leaseSeconds, int limit);
+
+    // Only the current holder can complete; a task reclaimed after an expired lease stays with its new owner
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE sync_tasks SET completed_at = now(), lease_owner = NULL, lease_expires_at = NULL "
+            + "WHERE user_id IN (:userIds) AND lease_owner = :owner", nativeQuery = true)
+    int complete(Collection<UUID> userIds, String owner);
+}
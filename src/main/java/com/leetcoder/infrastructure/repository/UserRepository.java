@@ -1,9 +1,15 @@
 package com.leetcoder.infrastructure.repository;
 
 import com.leetcoder.domain.entity.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 @Repository
@@ -12,4 +18,24 @@ public interface UserRepository extends JpaRepository<User, UUID> {
     boolean existsByEmail(String email);
 
     boolean existsByLeetcodeUsername(String username);
+
+    // Only ever moves forward, so a slower overlapping sync can't rewind it
+    @Modifying
+    @Query("UPDATE User u SET u.lastSyncedSubmissionAt = :submittedAt WHERE u.id = :userId "
+            + "AND (u.lastSyncedSubmissionAt IS NULL OR u.lastSyncedSubmissionAt < :submittedAt)")
+    int advanceSyncWatermark(UUID userId, LocalDateTime submittedAt);
+
+    // Keyset page of one reminder bucket's users that have something due
+    @Query("SELECT u.id FROM User u WHERE u.reminderHourUtc = :bucket AND u.id > :afterUserId "
+            + "AND EXISTS (SELECT 1 FROM StudyItem s WHERE s.user = u AND s.nextReviewAt <= :now) ORDER BY u.id")
+    List<UUID> findDueUserIdsInReminderBucketAfter(int bucket, LocalDateTime now, UUID afterUserId, Limit limit);
+
+    @Query("SELECT DISTINCT u.timezone FROM User u")
+    List<String> findDistinctTimezones();
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.reminderHourUtc = :bucket WHERE u.timezone = :timezone "
+            + "AND (u.reminderHourUtc IS NULL OR u.reminderHourUtc <> :bucket)")
+    int updateReminderBucket(String timezone, int bucket);
 }
@@ -0,0 +1,163 @@
+package com.leetcoder.infrastructure.repository;
+
+import com.leetcoder.domain.projection.ActivityDay;
+import com.leetcoder.domain.projection.DueCountRow;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * JDBC access to the per-user summaries in user_due_counts and
+ * user_review_activity. Changes arrive as arrays of (study item, day, delta)
+ * and are folded into the summary rows with one upsert per transaction; the
+ * user and difficulty are looked up in the same statement. Rows are
+ * upserted in key order so concurrent transactions touching the same users
+ * lock them in the same order.
+ */
+@Repository
+@RequiredArgsConstructor
+public class UserStatsRepository {
+
+    private static final String APPLY_DUE_DELTAS_SQL = "INSERT INTO user_due_counts "
+            + "(user_id, due_date, difficulty, item_count) "
+            + "SELECT s.user_id, d.due_date, COALESCE(q.difficulty, 'Unknown'), sum(d.delta) "
+            + "FROM unnest(CAST(? AS bigint[]), CAST(? AS date[]), CAST(? AS int[])) AS d(item_id, due_date, delta) "
+            + "JOIN study_items s ON s.id = d.item_id "
+            + "LEFT JOIN questions q ON q.title_slug = s.question_title_slug "
+            + "GROUP BY 1, 2, 3 HAVING sum(d.delta) <> 0 ORDER BY 1, 2, 3 "
+            + "ON CONFLICT (user_id, due_date, difficulty) "
+            + "DO UPDATE SET item_count = user_due_counts.item_count + EXCLUDED.item_count RETURNING user_id";
+
+    private static final String ADD_ACTIVITY_SQL = "INSERT INTO user_review_activity "
+            + "(user_id, activity_date, review_count, quality_sum) "
+            + "SELECT s.user_id, d.activity_date, count(*), sum(d.quality) "
+            + "FROM unnest(CAST(? AS bigint[]), CAST(? AS date[]), CAST(? AS int[])) AS d(item_id, activity_date, quality) "
+            + "JOIN study_items s ON s.id = d.item_id "
+            + "GROUP BY 1, 2 ORDER BY 1, 2 "
+            + "ON CONFLICT (user_id, activity_date) "
+            + "DO UPDATE SET review_count = user_review_activity.review_count + EXCLUDED.review_count, "
+            + "quality_sum = user_review_activity.quality_sum + EXCLUDED.quality_sum RETURNING user_id";
+
+    private static final String COUNT_DUE_SQL = "INSERT INTO user_due_counts "
+            + "(user_id, due_date, difficulty, item_count) "
+            + "SELECT s.user_id, CAST(s.next_review_at AS date), COALESCE(q.difficulty, 'Unknown'), count(*) "
+            + "FROM study_items s LEFT JOIN questions q ON q.title_slug = s.question_title_slug "
+            + "WHERE s.next_review_at IS NOT NULL";
+
+    // A review committing between the DELETE and the INSERT may have upserted a row again; the recount wins
+    private static final String COUNT_DUE_UPSERT_SQL = " GROUP BY 1, 2, 3 ORDER BY 1, 2, 3 "
+            + "ON CONFLICT (user_id, due_date, difficulty) DO UPDATE SET item_count = EXCLUDED.item_count";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Adds {@code deltas[i]} to the count of the day {@code dueDates[i]} (ISO
+     * dates) of item {@code itemIds[i]}'s user and difficulty.
+     *
+     * @return the users of the rows written, once per row
+     */
+    public List<UUID> applyDueDeltas(long[] itemIds, String[] dueDates, int[] deltas) {
+        return jdbcTemplate.queryForList(APPLY_DUE_DELTAS_SQL, UUID.class, itemIds, dueDates, deltas);
+    }
+
+    /**
+     * Counts one review of quality {@code qualities[i]} per entry for the day
+     * {@code reviewDates[i]} of item {@code itemIds[i]}'s user.
+     *
+     * @return the users of the rows written, once per row
+     */
+    public List<UUID> addActivity(long[] itemIds, String[] reviewDates, int[] qualities) {
+        return jdbcTemplate.queryForList(ADD_ACTIVITY_SQL, UUID.class, itemIds, reviewDates, qualities);
+    }
+
+    /**
+     * Rebuilds the due counts of the given users from study_items, in the
+     * caller's transaction.
+     */
+    public void recountDue(UUID[] userIds) {
+        jdbcTemplate.update("DELETE FROM user_due_counts WHERE user_id = ANY (?)", (Object) userIds);
+        jdbcTemplate.update(COUNT_DUE_SQL + " AND s.user_id = ANY (?)" + COUNT_DUE_UPSERT_SQL,
+                (Object) userIds);
+    }
+
+    public void recountAllDue() {
+        jdbcTemplate.update("DELETE FROM user_due_counts");
+        jdbcTemplate.update(COUNT_DUE_SQL + COUNT_DUE_UPSERT_SQL);
+    }
+
+    public List<UUID> findUserIdsByItemIds(long[] itemIds) {
+        return jdbcTemplate.queryForList("SELECT DISTINCT user_id FROM study_items WHERE id = ANY (?)",
+                UUID.class, (Object) itemIds);
+    }
+
+    public List<UUID> findUserIdsByQuestions(String[] titleSlugs) {
+        return jdbcTemplate.queryForList("SELECT DISTINCT user_id FROM study_items "
+                + "WHERE question_title_slug = ANY (?)", UUID.class, (Object) titleSlugs);
+    }
+
+    /**
+     * Fills user_review_activity from review history. Only meant for an empty
+     * table: it counts every kept manual and synced review again.
+     */
+    public int backfillActivity() {
+        return jdbcTemplate.update("INSERT INTO user_review_activity (user_id, activity_date, review_count, "
+                + "quality_sum) SELECT s.user_id, CAST(e.reviewed_at AS date), count(*), sum(e.quality) "
+                + "FROM review_events e "
+                + "JOIN study_items s ON s.id = e.study_item_id "
+                + "WHERE e.source IN ('MANUAL', 'SYNC') AND e.reviewed_at IS NOT NULL GROUP BY 1, 2 "
+                + "ON CONFLICT (user_id, activity_date) DO NOTHING");
+    }
+
+    public boolean hasDueCounts() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM user_due_counts)", Boolean.class));
+    }
+
+    public boolean hasActivity() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM user_review_activity)", Boolean.class));
+    }
+
+    public boolean hasScheduledItems() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM study_items WHERE next_review_at IS NOT NULL)", Boolean.class));
+    }
+
+    public int deleteEmptyDueCounts() {
+        return jdbcTemplate.update("DELETE FROM user_due_counts WHERE item_count = 0");
+    }
+
+    /**
+     * The user's non-empty due counts, oldest day first.
+     */
+    public List<DueCountRow> findDueCounts(UUID userId) {
+        return jdbcTemplate.query("SELECT due_date, difficulty, item_count FROM user_due_counts "
+                        + "WHERE user_id = ? AND item_count > 0 ORDER BY due_date",
+                (rs, rowNum) -> new DueCountRow(rs.getObject("due_date", LocalDate.class),
+                        rs.getString("difficulty"), rs.getInt("item_count")), userId);
+    }
+
+    /**
+     * Mean quality of the user's reviews on or after {@code since}, or null if
+     * there were none (with known qualities).
+     */
+    public Double findAverageQuality(UUID userId, LocalDate since) {
+        return jdbcTemplate.queryForObject("SELECT CAST(sum(quality_sum) AS float8) "
+                + "/ NULLIF(sum(review_count) FILTER (WHERE quality_sum IS NOT NULL), 0) "
+                + "FROM user_review_activity WHERE user_id = ? AND activity_date >= ?", Double.class, userId, since);
+    }
+
+    /**
+     * The user's days with reviews, most recent first.
+     */
+    public List<ActivityDay> findActivity(UUID userId) {
+        return jdbcTemplate.query("SELECT activity_date, review_count FROM user_review_activity "
+                        + "WHERE user_id = ? ORDER BY activity_date DESC",
+                (rs, rowNum) -> new ActivityDay(rs.getObject("activity_date", LocalDate.class),
+                        rs.getInt("review_count")), userId);
+    }
+}
@@ -1,15 +1,19 @@
 package com.leetcoder.web.controller;
 
-import com.leetcoder.application.service.LeetCodeSyncService;
-import com.leetcoder.domain.entity.StudyItem;
+import com.leetcoder.application.service.ProgressAdminService;
+import com.leetcoder.application.service.ProgressAdminService.AdminJobView;
+import com.leetcoder.application.service.QuestionCatalogService;
+import com.leetcoder.application.service.ReviewReplayService;
+import com.leetcoder.application.service.ReviewReplayService.ReplayJobView;
+import com.leetcoder.application.service.SyncJobService;
+import com.leetcoder.application.service.SyncJobService.SyncJobView;
 import com.leetcoder.domain.entity.User;
-import com.leetcoder.infrastructure.repository.StudyItemRepository;
 import com.leetcoder.infrastructure.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -17,10 +21,12 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class AdminController {
 
-    private final LeetCodeSyncService syncService;
+    private final SyncJobService syncJobService;
     private final com.leetcoder.application.service.DailyReminderService dailyReminderService;
     private final UserRepository userRepository;
-    private final StudyItemRepository studyItemRepository;
+    private final ProgressAdminService progressAdminService;
+    private final QuestionCatalogService questionCatalogService;
+    private final ReviewReplayService reviewReplayService;
 
     @PostMapping("/users")
     public ResponseEntity<User> createUser(@RequestBody User user) {
@@ -31,16 +37,24 @@ public class AdminController {
     }
 
     @PostMapping("/sync/{userId}")
-    public ResponseEntity<String> syncUser(@PathVariable UUID userId) {
-        System.out.println("DEBUG: Received Sync Request for UserId: '" + userId + "'");
+    public ResponseEntity<?> syncUser(@PathVariable UUID userId) {
         if (userId == null) {
             return ResponseEntity.badRequest().body("UserId cannot be null");
         }
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        if (!userRepository.existsById(userId)) {
+            throw new RuntimeException("User not found");
+        }
+
+        try {
+            return ResponseEntity.accepted().body(syncJobService.submit(userId));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
+        }
+    }
 
-        syncService.syncUser(user);
-        return ResponseEntity.ok("Sync triggered for user: " + user.getLeetcodeUsername());
+    @GetMapping("/sync/jobs/{jobId}")
+    public ResponseEntity<SyncJobView> getSyncJob(@PathVariable UUID jobId) {
+        return ResponseEntity.of(syncJobService.find(jobId));
     }
 
     @PostMapping("/reset/{userId}")
@@ -48,20 +62,61 @@ public class AdminController {
         if (userId == null) {
             return ResponseEntity.badRequest().body("UserId cannot be null");
         }
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        List<StudyItem> items = studyItemRepository.findAllByUser(user);
-        for (StudyItem item : items) {
-            item.setEaseFactor(2.5);
-            item.setIntervalDays(0);
-            item.setRepetitions(0);
-            item.setNextReviewAt(null);
-            item.setLastReviewedAt(null);
-            studyItemRepository.save(item);
+        if (!userRepository.existsById(userId)) {
+            throw new RuntimeException("User not found");
+        }
+
+        int affected = progressAdminService.resetUser(userId);
+        return ResponseEntity.ok("Reset progress for " + affected + " items.");
+    }
+
+    @PostMapping("/reset")
+    public ResponseEntity<?> resetAllProgress() {
+        try {
+            return ResponseEntity.accepted().body(progressAdminService.submitResetAll());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }
+    }
+
+    @PostMapping("/schedules/shift")
+    public ResponseEntity<?> shiftSchedules(@RequestParam int days) {
+        if (days == 0) {
+            return ResponseEntity.badRequest().body("days must not be 0");
         }
+        try {
+            return ResponseEntity.accepted().body(progressAdminService.submitShift(days));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<AdminJobView> getAdminJob(@PathVariable UUID jobId) {
+        return ResponseEntity.of(progressAdminService.find(jobId));
+    }
+
+    @PostMapping("/reviews/replay")
+    public ResponseEntity<?> replayReviews(@RequestParam(defaultValue = "true") boolean dryRun) {
+        if (!reviewReplayService.isAvailable()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Review history is not enabled.");
+        }
+        try {
+            return ResponseEntity.accepted().body(reviewReplayService.submit(dryRun));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/reviews/replay/{jobId}")
+    public ResponseEntity<ReplayJobView> getReplay(@PathVariable UUID jobId) {
+        return ResponseEntity.of(reviewReplayService.find(jobId));
+    }
 
-        return ResponseEntity.ok("Reset progress for " + items.size() + " items.");
+    @PostMapping("/catalog/warm-up")
+    public ResponseEntity<String> warmUpCatalog() {
+        int cached = questionCatalogService.warmUp();
+        return ResponseEntity.ok("Question catalog warmed up with " + cached + " questions.");
     }
 
     @PostMapping("/reminders")
@@ -1,14 +1,21 @@
 package com.leetcoder.web.controller;
 
 import com.leetcoder.application.service.SpacedRepetitionService;
+import com.leetcoder.application.service.SpacedRepetitionService.Review;
+import com.leetcoder.application.service.SpacedRepetitionService.ReviewOutcome;
 import com.leetcoder.web.dto.ReviewRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/reviews")
 @RequiredArgsConstructor
@@ -16,6 +23,9 @@ public class ReviewController {
 
     private final SpacedRepetitionService spacedRepetitionService;
 
+    @Value("${app.reviews.max-batch-size:200}")
+    private int maxBatchSize;
+
     @PostMapping
     public ResponseEntity<String> submitReview(@RequestBody ReviewRequest request) {
         if (request.studyItemId() == null) {
@@ -27,6 +37,28 @@ public class ReviewController {
             return ResponseEntity.ok("Review processed successfully");
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("StudyItem was updated concurrently, please retry");
+        }
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<?> submitReviews(@RequestBody List<ReviewRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            return ResponseEntity.badRequest().body("At least one review is required");
+        }
+        if (requests.size() > maxBatchSize) {
+            return ResponseEntity.badRequest().body("At most " + maxBatchSize + " reviews per batch");
+        }
+
+        List<Review> reviews = requests.stream()
+                .map(request -> new Review(request.studyItemId(), request.quality()))
+                .toList();
+        try {
+            List<ReviewOutcome> outcomes = spacedRepetitionService.processReviews(reviews);
+            return ResponseEntity.ok(outcomes);
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Items were updated concurrently, please retry");
         }
     }
 }
@@ -0,0 +1,66 @@
+package com.leetcoder.web.controller;
+
+import com.leetcoder.application.service.DueCounterService;
+import com.leetcoder.application.service.DueQueueService;
+import com.leetcoder.application.service.WorkloadForecastService;
+import com.leetcoder.infrastructure.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/users")
+@RequiredArgsConstructor
+public class UserController {
+
+    private final DueQueueService dueQueueService;
+    private final DueCounterService dueCounterService;
+    private final WorkloadForecastService workloadForecastService;
+    private final UserRepository userRepository;
+
+    @GetMapping("/{userId}/due")
+    public ResponseEntity<?> getDueItems(@PathVariable UUID userId,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(required = false) String cursor) {
+        if (!userRepository.existsById(userId)) {
+            return ResponseEntity.notFound().build();
+        }
+
+        try {
+            return ResponseEntity.ok(dueQueueService.findDue(userId, limit, cursor));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/{userId}/stats")
+    public ResponseEntity<?> getStats(@PathVariable UUID userId, @RequestParam(defaultValue = "30") int days) {
+        if (!userRepository.existsById(userId)) {
+            return ResponseEntity.notFound().build();
+        }
+        if (!dueCounterService.isEnabled()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Study stats are not enabled.");
+        }
+
+        try {
+            return ResponseEntity.ok(dueCounterService.getStats(userId, days));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/{userId}/forecast")
+    public ResponseEntity<?> getForecast(@PathVariable UUID userId) {
+        if (!userRepository.existsById(userId)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(workloadForecastService.forecast(userId));
+    }
+}